@@ -0,0 +1,73 @@
+package com.courses.courses.benchmark;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalog shaped like sample-courses.json.
+ */
+public final class CourseGenerator {
+
+    private static final String[] CATEGORIES = {
+            "Math", "Art", "Science", "Technology", "Language", "Social Studies", "Wellness", "Games"
+    };
+    private static final String[] SUBJECTS = {
+            "Algebra", "Painting", "Chemistry", "Robotics", "Writing", "Geometry", "Drama", "Physics",
+            "Coding", "Speaking", "Pottery", "Biology", "Printing", "Poetry", "Trigonometry", "Origami",
+            "Astronomy", "Game Design", "Storytelling", "Statistics", "Sculpture", "Ecology", "Debate",
+            "History", "Meditation", "French", "Chess", "Photography", "Electronics", "Music Theory"
+    };
+    private static final String[] FORMATS = {
+            "Introduction to", "Advanced", "Basics of", "Club:", "Workshop:", "Fun with", "Mastering"
+    };
+    private static final String[] GRADES = {"3rd–5th", "6th–8th", "7th–9th", "9th–12th", "10th–12th"};
+
+    private CourseGenerator() {
+    }
+
+    public static List<CourseDocument> generate(int count, long seed) {
+        Random random = new Random(seed);
+        Instant base = Instant.parse("2025-07-01T00:00:00Z");
+        CourseDocument.CourseType[] types = CourseDocument.CourseType.values();
+
+        List<CourseDocument> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            String title = FORMATS[random.nextInt(FORMATS.length)] + " " + subject + " " + (i % 97);
+            int minAge = 6 + random.nextInt(10);
+
+            CourseDocument course = new CourseDocument();
+            course.setId(Integer.toString(i + 1));
+            course.setTitle(title);
+            course.setDescription("Hands-on sessions covering " + subject.toLowerCase()
+                    + " concepts with projects, group discussion and weekly practice for curious learners.");
+            course.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            course.setType(types[random.nextInt(types.length)]);
+            course.setGradeRange(GRADES[random.nextInt(GRADES.length)]);
+            course.setMinAge(minAge);
+            course.setMaxAge(minAge + 2 + random.nextInt(5));
+            course.setPrice(BigDecimal.valueOf(10 + random.nextInt(90)).setScale(1));
+            course.setNextSessionDate(base.plus(random.nextInt(24 * 365), ChronoUnit.HOURS));
+            course.setTitleSuggest(title);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    public static SearchResponse page(List<CourseDocument> courses, int size) {
+        SearchResponse response = new SearchResponse();
+        response.setCourses(courses.subList(0, Math.min(size, courses.size())));
+        response.setTotal(courses.size());
+        response.setPage(0);
+        response.setSize(size);
+        response.setTotalPages((courses.size() + size - 1) / size);
+        return response;
+    }
+}
@@ -0,0 +1,56 @@
+package com.courses.courses.benchmark;
+
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import com.courses.courses.service.LocalSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process baseline for the search path: the same requests Elasticsearch answers, evaluated by the
+ * embedded engine with no network hop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalSearchBenchmark {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private LocalSearchIndex index;
+    private SearchRequest filtersOnly;
+    private SearchRequest fuzzyText;
+
+    @Setup
+    public void setup() {
+        index = LocalSearchIndex.build(CourseGenerator.generate(catalogSize, 7));
+
+        filtersOnly = new SearchRequest();
+        filtersOnly.setMinAge(8);
+        filtersOnly.setMaxAge(12);
+        filtersOnly.setMaxPrice(new BigDecimal("60"));
+        filtersOnly.setSort(SearchRequest.SortOption.PRICE_ASC);
+
+        fuzzyText = new SearchRequest();
+        fuzzyText.setQ("algerba");
+    }
+
+    @Benchmark
+    public SearchResponse filtersAndPriceSort() {
+        return index.search(filtersOnly, NOW);
+    }
+
+    @Benchmark
+    public SearchResponse fuzzyTextUpcoming() {
+        return index.search(fuzzyText, NOW);
+    }
+}
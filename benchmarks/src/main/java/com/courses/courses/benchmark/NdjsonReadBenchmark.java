@@ -0,0 +1,88 @@
+package com.courses.courses.benchmark;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.service.CourseJsonReader;
+import com.courses.courses.service.MappedNdjsonReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads a generated NDJSON export the way the import job does: one buffered stream versus line-aligned
+ * memory-mapped chunks parsed in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NdjsonReadBenchmark {
+
+    @Param({"200000"})
+    public int courses;
+
+    @Param({"4"})
+    public int chunks;
+
+    private CourseJsonReader courseJsonReader;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        // Only the parsing half of the service is exercised, which needs no Elasticsearch client.
+        courseJsonReader = new CourseJsonReader(objectMapper);
+
+        file = Files.createTempFile("courses", ".ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (CourseDocument course : CourseGenerator.generate(courses, 42)) {
+                writer.write(objectMapper.writeValueAsString(course));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            return courseJsonReader.readCourses(in, (course, size) -> { });
+        }
+    }
+
+    @Benchmark
+    public long mappedParallel() throws IOException {
+        List<MappedByteBuffer> parts = MappedNdjsonReader.split(file, chunks);
+        LongAdder count = new LongAdder();
+        parts.parallelStream().forEach(part -> {
+            try (InputStream in = MappedNdjsonReader.inputStream(part)) {
+                count.add(courseJsonReader.readCourses(in, (course, size) -> { }));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return count.sum();
+    }
+}
@@ -0,0 +1,70 @@
+package com.courses.courses.benchmark;
+
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.service.CourseQueryBuilder;
+import com.courses.courses.service.SearchClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query and sort construction per search shape. Compare {@code gc.alloc.rate.norm} across shapes: the
+ * unfiltered listing and category/type filters come from prebuilt clauses, text and range bounds don't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+    @Param({"NO_FILTERS", "CATEGORY", "TEXT_ONLY", "ALL_FILTERS"})
+    public String shape;
+
+    private CourseQueryBuilder queryBuilder;
+    private SearchRequest request;
+
+    @Setup
+    public void setup() {
+        queryBuilder = new CourseQueryBuilder(new SearchClock(ChronoUnit.MINUTES));
+        request = new SearchRequest();
+        if ("CATEGORY".equals(shape)) {
+            request.setCategory("Math");
+        } else if (!"NO_FILTERS".equals(shape)) {
+            request.setQ("intro algebra");
+        }
+        if ("ALL_FILTERS".equals(shape)) {
+            request.setMinAge(10);
+            request.setMaxAge(14);
+            request.setCategory("Math");
+            request.setType(CourseDocument.CourseType.COURSE);
+            request.setMinPrice(BigDecimal.valueOf(20));
+            request.setMaxPrice(BigDecimal.valueOf(60));
+            request.setStartDate(Instant.parse("2025-08-01T00:00:00Z"));
+            request.setSort(SearchRequest.SortOption.PRICE_ASC);
+        }
+    }
+
+    @Benchmark
+    public Query buildSearchQuery() {
+        return queryBuilder.buildSearchQuery(request);
+    }
+
+    @Benchmark
+    public Query buildFacetedQuery() {
+        return queryBuilder.buildFacetedQuery(request);
+    }
+
+    @Benchmark
+    public List<SortOptions> buildSort() {
+        return queryBuilder.buildSort(request.getSort());
+    }
+}
@@ -0,0 +1,80 @@
+package com.courses.courses.benchmark;
+
+import com.courses.courses.config.BinaryJacksonHttpMessageConverter;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search response bodies as JSON and in the Smile and CBOR formats served to clients that ask for them.
+ * BinaryResponseSizeTest checks that the binary bodies are the smaller ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectWriter jsonWriter;
+    private ObjectWriter smileWriter;
+    private ObjectWriter cborWriter;
+    private ObjectReader courseListReader;
+    private SearchResponse response;
+    private byte[] coursesJson;
+
+    @Setup
+    public void setup() throws IOException {
+        // Same date handling as the Spring Boot configured mapper.
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        courseListReader = objectMapper.readerFor(new TypeReference<List<CourseDocument>>() {});
+
+        response = CourseGenerator.page(CourseGenerator.generate(pageSize, 42), pageSize);
+        coursesJson = objectMapper.writeValueAsBytes(response.getCourses());
+
+        jsonWriter = objectMapper.writerFor(SearchResponse.class);
+        smileWriter = BinaryJacksonHttpMessageConverter.smileMapper(new Jackson2ObjectMapperBuilder())
+                .writerFor(SearchResponse.class);
+        cborWriter = BinaryJacksonHttpMessageConverter.cborMapper(new Jackson2ObjectMapperBuilder())
+                .writerFor(SearchResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchResponseJson() throws IOException {
+        return jsonWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchResponseSmile() throws IOException {
+        return smileWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchResponseCbor() throws IOException {
+        return cborWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public List<CourseDocument> deserializeCourses() throws IOException {
+        return courseListReader.readValue(coursesJson);
+    }
+}
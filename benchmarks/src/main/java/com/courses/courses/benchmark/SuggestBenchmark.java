@@ -0,0 +1,97 @@
+package com.courses.courses.benchmark;
+
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.service.SuggestionIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.json.stream.JsonParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestBenchmark {
+
+    private static final String[] PREFIXES = {"alg", "intro", "chem", "robo", "adv", "phot", "med", "c"};
+    private static final String[] TYPOS = {"algerba", "chmistry", "robtics", "photgraphy"};
+    private static final String TITLE_FIELD = "title.keyword";
+    private static final JsonpDeserializer<HitsMetadata<Void>> HITS =
+            HitsMetadata.createHitsMetadataDeserializer(JsonpDeserializer.voidDeserializer());
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private SuggestionIndex suggestionIndex;
+    private JsonpMapper jsonpMapper;
+    private byte[] hitsJson;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        Map<String, Integer> weightedTitles = new HashMap<>();
+        for (CourseDocument course : CourseGenerator.generate(catalogSize, 7)) {
+            weightedTitles.merge(course.getTitle(), 1, Integer::sum);
+        }
+        suggestionIndex = SuggestionIndex.build(weightedTitles, 10);
+
+        // Ten hits shaped like the suggest response: no _source, the title read from doc values.
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode hits = objectMapper.createObjectNode();
+        hits.putObject("total").put("value", 10).put("relation", "eq");
+        ArrayNode hitList = hits.putArray("hits");
+        for (CourseDocument course : CourseGenerator.generate(10, 11)) {
+            hitList.addObject()
+                    .put("_index", "courses-v1")
+                    .put("_id", course.getId())
+                    .put("_score", 1.0)
+                    .putObject("fields").putArray(TITLE_FIELD).add(course.getTitle());
+        }
+        hitsJson = objectMapper.writeValueAsBytes(hits);
+        jsonpMapper = new JacksonJsonpMapper(objectMapper);
+    }
+
+    @Benchmark
+    public List<String> trieExactPrefix() {
+        return suggestionIndex.suggest(PREFIXES[next++ & 7], 10, false);
+    }
+
+    @Benchmark
+    public List<String> trieFuzzyPrefix() {
+        return suggestionIndex.suggest(TYPOS[next++ & 3], 10, true);
+    }
+
+    // Mirrors the docvalue_fields decoding in ElasticsearchCourseSearchService.getSuggestions.
+    @Benchmark
+    public List<String> docValueTitleDecoding() {
+        HitsMetadata<Void> hits;
+        try (JsonParser parser = jsonpMapper.jsonProvider().createParser(new ByteArrayInputStream(hitsJson))) {
+            hits = HITS.deserialize(parser, jsonpMapper);
+        }
+        List<String> titles = new ArrayList<>(hits.hits().size());
+        for (Hit<Void> hit : hits.hits()) {
+            JsonData values = hit.fields().get(TITLE_FIELD);
+            if (values != null) {
+                titles.add(values.toJson().asJsonArray().getString(0));
+            }
+        }
+        return titles;
+    }
+}
@@ -2,8 +2,12 @@ package com.courses.courses;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.elasticsearch.ElasticsearchRestClientAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// The RestClient (and its optional sniffer) is built by ElasticsearchConfig from courses.elasticsearch.*
+@SpringBootApplication(exclude = ElasticsearchRestClientAutoConfiguration.class)
+@EnableScheduling
 public class CoursesApplication {
 
 	public static void main(String[] args) {
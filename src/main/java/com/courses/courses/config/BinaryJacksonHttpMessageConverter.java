@@ -0,0 +1,98 @@
+package com.courses.courses.config;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.CourseCard;
+import com.courses.courses.dto.SearchResponse;
+import com.courses.courses.service.SearchMetrics;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+
+/**
+ * Smile or CBOR bodies for clients that ask for them in {@code Accept}. Compared with the JSON body, prices are
+ * native decimals, session dates are epoch millis and the {@code titleSuggest} copy of the title is left out.
+ * Writers are built once per body type and reused.
+ */
+public class BinaryJacksonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final SearchMetrics searchMetrics;
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return getObjectMapper().writerFor(type);
+        }
+    };
+
+    public BinaryJacksonHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType, SearchMetrics searchMetrics) {
+        super(objectMapper, mediaType);
+        this.searchMetrics = searchMetrics;
+    }
+
+    public static BinaryJacksonHttpMessageConverter smile(Jackson2ObjectMapperBuilder builder, SearchMetrics searchMetrics) {
+        return new BinaryJacksonHttpMessageConverter(smileMapper(builder), APPLICATION_SMILE, searchMetrics);
+    }
+
+    public static BinaryJacksonHttpMessageConverter cbor(Jackson2ObjectMapperBuilder builder, SearchMetrics searchMetrics) {
+        return new BinaryJacksonHttpMessageConverter(cborMapper(builder), MediaType.APPLICATION_CBOR, searchMetrics);
+    }
+
+    // Category and type values repeat on every hit, so Smile back-references them like it does field names.
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return compact(builder)
+                .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .build();
+    }
+
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return compact(builder)
+                .factory(new CBORFactory())
+                .build();
+    }
+
+    private static Jackson2ObjectMapperBuilder compact(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .mixIn(CourseDocument.class, CompactCourse.class)
+                .mixIn(CourseCard.class, CompactCourse.class)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (object instanceof MappingJacksonValue) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        long start = System.nanoTime();
+        TimedJacksonHttpMessageConverter.write(writers.get(object.getClass()), object, outputMessage);
+        if (object instanceof SearchResponse) {
+            TimedJacksonHttpMessageConverter.recordSerialization(searchMetrics, System.nanoTime() - start);
+        }
+    }
+
+    @JsonIgnoreProperties(value = "titleSuggest", ignoreUnknown = true)
+    private abstract static class CompactCourse {
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+        private Instant nextSessionDate;
+    }
+}
@@ -0,0 +1,141 @@
+package com.courses.courses.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "courses.elasticsearch")
+public class ElasticsearchClientProperties {
+
+    // Node URLs; spring.elasticsearch.uris is used when empty. Requests are spread round-robin.
+    private List<String> hosts = new ArrayList<>();
+    private Duration connectionTimeout = Duration.ofSeconds(10);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    // How long a request waits for a pooled connection before failing.
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    private boolean compression = true;
+    // 0 keeps the client default of one IO thread per core.
+    private int ioThreadCount = 0;
+    private final Pool pool = new Pool();
+    private final Sniffer sniffer = new Sniffer();
+
+    public static class Pool {
+
+        private int maxConnections = 200;
+        private int maxConnectionsPerRoute = 100;
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+    }
+
+    public static class Sniffer {
+
+        private boolean enabled = false;
+        private Duration interval = Duration.ofMinutes(5);
+        private Duration delayAfterFailure = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getDelayAfterFailure() {
+            return delayAfterFailure;
+        }
+
+        public void setDelayAfterFailure(Duration delayAfterFailure) {
+            this.delayAfterFailure = delayAfterFailure;
+        }
+    }
+
+    public List<String> getHosts() {
+        return hosts;
+    }
+
+    public void setHosts(List<String> hosts) {
+        this.hosts = hosts;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    public void setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Sniffer getSniffer() {
+        return sniffer;
+    }
+}
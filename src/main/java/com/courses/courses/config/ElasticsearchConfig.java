@@ -3,26 +3,85 @@ package com.courses.courses.config;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.elasticsearch.client.NodeSelector;
 import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
 @Configuration
+@Profile("!embedded")
 @EnableElasticsearchRepositories(basePackages = "com.courses.courses.repository")
+@EnableConfigurationProperties(ElasticsearchClientProperties.class)
 public class ElasticsearchConfig {
 
     @Value("${spring.elasticsearch.uris}")
     private String elasticsearchUrl;
 
+    private final ElasticsearchClientProperties properties;
+
+    public ElasticsearchConfig(ElasticsearchClientProperties properties) {
+        this.properties = properties;
+    }
+
     @Bean
-    public RestClient restClient() {
-        HttpHost host = HttpHost.create(elasticsearchUrl);
-        return RestClient.builder(host).build();
+    public RestClient restClient(ObjectProvider<SniffOnFailureListener> sniffOnFailureListener,
+                                 MeterRegistry meterRegistry) throws IOReactorException {
+        int connectTimeout = (int) properties.getConnectionTimeout().toMillis();
+        int socketTimeout = (int) properties.getSocketTimeout().toMillis();
+        int connectionRequestTimeout = (int) properties.getConnectionRequestTimeout().toMillis();
+        long keepAlive = properties.getPool().getKeepAlive().toMillis();
+
+        IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSoTimeout(socketTimeout)
+                .setSoKeepAlive(true);
+        if (properties.getIoThreadCount() > 0) {
+            ioReactorConfig.setIoThreadCount(properties.getIoThreadCount());
+        }
+
+        PoolingNHttpClientConnectionManager connectionManager =
+                new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig.build()));
+        connectionManager.setMaxTotal(properties.getPool().getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getPool().getMaxConnectionsPerRoute());
+        bindPoolMetrics(connectionManager, meterRegistry);
+
+        // The Java client only speaks JSON to Elasticsearch, so gzip is what shrinks this leg.
+        RestClientBuilder builder = RestClient.builder(resolveHosts())
+                .setCompressionEnabled(properties.isCompression())
+                .setNodeSelector(NodeSelector.SKIP_DEDICATED_MASTERS)
+                .setRequestConfigCallback(requestConfig -> requestConfig
+                        .setConnectTimeout(connectTimeout)
+                        .setSocketTimeout(socketTimeout)
+                        .setConnectionRequestTimeout(connectionRequestTimeout))
+                .setHttpClientConfigCallback(httpClient -> httpClient
+                        .setConnectionManager(connectionManager)
+                        .setKeepAliveStrategy((response, context) -> keepAlive));
+        sniffOnFailureListener.ifAvailable(builder::setFailureListener);
+
+        return builder.build();
     }
 
     @Bean
@@ -33,4 +92,53 @@ public class ElasticsearchConfig {
 
         return new ElasticsearchClient(transport);
     }
-}
\ No newline at end of file
+
+    // Same transport and connection pool; its calls return as soon as the request is sent.
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchClient elasticsearchClient) {
+        return new ElasticsearchAsyncClient(elasticsearchClient._transport());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "courses.elasticsearch.sniffer", name = "enabled", havingValue = "true")
+    public SniffOnFailureListener sniffOnFailureListener() {
+        return new SniffOnFailureListener();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "courses.elasticsearch.sniffer", name = "enabled", havingValue = "true")
+    public Sniffer sniffer(RestClient restClient, SniffOnFailureListener sniffOnFailureListener) {
+        Sniffer sniffer = Sniffer.builder(restClient)
+                .setSniffIntervalMillis((int) properties.getSniffer().getInterval().toMillis())
+                .setSniffAfterFailureDelayMillis((int) properties.getSniffer().getDelayAfterFailure().toMillis())
+                .build();
+        sniffOnFailureListener.setSniffer(sniffer);
+        return sniffer;
+    }
+
+    private HttpHost[] resolveHosts() {
+        List<String> hosts = properties.getHosts().isEmpty()
+                ? Arrays.asList(elasticsearchUrl.split(","))
+                : properties.getHosts();
+        return hosts.stream()
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(HttpHost::create)
+                .toArray(HttpHost[]::new);
+    }
+
+    private void bindPoolMetrics(PoolingNHttpClientConnectionManager connectionManager, MeterRegistry meterRegistry) {
+        registerPoolGauge(meterRegistry, connectionManager, "leased", cm -> cm.getTotalStats().getLeased());
+        registerPoolGauge(meterRegistry, connectionManager, "available", cm -> cm.getTotalStats().getAvailable());
+        registerPoolGauge(meterRegistry, connectionManager, "pending", cm -> cm.getTotalStats().getPending());
+        registerPoolGauge(meterRegistry, connectionManager, "max", cm -> cm.getTotalStats().getMax());
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, PoolingNHttpClientConnectionManager connectionManager,
+                                   String state, ToDoubleFunction<PoolingNHttpClientConnectionManager> value) {
+        Gauge.builder("elasticsearch.client.pool.connections", connectionManager, value)
+                .tag("state", state)
+                .description("Connections in the Elasticsearch REST client pool")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.courses.courses.config;
+
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.service.SearchMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records end-to-end time of the search endpoints. The start time survives the async re-dispatch,
+ * so async requests are measured from the original request.
+ */
+public class SearchTimingInterceptor implements HandlerInterceptor {
+
+    public static final String START_ATTRIBUTE = SearchTimingInterceptor.class.getName() + ".start";
+
+    private final SearchMetrics searchMetrics;
+
+    public SearchTimingInterceptor(SearchMetrics searchMetrics) {
+        this.searchMetrics = searchMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        SearchRequest searchRequest = request.getAttribute(SearchMetrics.REQUEST_ATTRIBUTE) instanceof SearchRequest r
+                ? r : null;
+        searchMetrics.recordTotal(endpoint(request), searchRequest, System.nanoTime() - start);
+    }
+
+    public static String endpoint(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.endsWith("/suggest")) {
+            return "suggest";
+        }
+        return uri.endsWith("/batch") ? "batch" : "search";
+    }
+}
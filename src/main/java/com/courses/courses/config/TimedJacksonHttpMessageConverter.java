@@ -0,0 +1,61 @@
+package com.courses.courses.config;
+
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import com.courses.courses.service.SearchMetrics;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that times the serialization of {@link SearchResponse} bodies, written with a writer
+ * built once instead of per response.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final SearchMetrics searchMetrics;
+    private final ObjectWriter searchResponseWriter;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, SearchMetrics searchMetrics) {
+        super(objectMapper);
+        this.searchMetrics = searchMetrics;
+        this.searchResponseWriter = objectMapper.writerFor(SearchResponse.class);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(object instanceof SearchResponse)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        long start = System.nanoTime();
+        write(searchResponseWriter, object, outputMessage);
+        recordSerialization(searchMetrics, System.nanoTime() - start);
+    }
+
+    // The servlet output stream stays open for the container to finish the response.
+    static void write(ObjectWriter writer, Object value, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))) {
+            writer.writeValue(generator, value);
+        }
+    }
+
+    static void recordSerialization(SearchMetrics searchMetrics, long elapsed) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object request = attributes == null ? null
+                : attributes.getAttribute(SearchMetrics.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        searchMetrics.record("search", SearchMetrics.STAGE_SERIALIZE,
+                request instanceof SearchRequest searchRequest ? searchRequest : null, elapsed);
+    }
+}
@@ -0,0 +1,54 @@
+package com.courses.courses.config;
+
+import com.courses.courses.service.SearchMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SearchMetrics searchMetrics;
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WebConfig(SearchMetrics searchMetrics, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.searchMetrics = searchMetrics;
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SearchTimingInterceptor(searchMetrics))
+                .addPathPatterns("/api/search", "/api/search/suggest", "/api/search/batch");
+    }
+
+    // Replaces Boot's default JSON converter.
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, searchMetrics);
+    }
+
+    // Right after JSON, so a wildcard Accept still gets JSON and only clients asking for Smile or CBOR get them.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        int position = json < converters.size() ? json + 1 : converters.size();
+        converters.addAll(position, List.of(
+                BinaryJacksonHttpMessageConverter.smile(objectMapperBuilder, searchMetrics),
+                BinaryJacksonHttpMessageConverter.cbor(objectMapperBuilder, searchMetrics)));
+    }
+}
@@ -1,32 +1,62 @@
 package com.courses.courses.controller;
 
 import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.BatchSearchResult;
+import com.courses.courses.dto.ImportProgress;
 import com.courses.courses.dto.SearchRequest;
 import com.courses.courses.dto.SearchResponse;
 import com.courses.courses.service.CourseSearchService;
 import com.courses.courses.service.DataIndexingService;
+import com.courses.courses.config.SearchTimingInterceptor;
+import com.courses.courses.service.SearchExecutor;
+import com.courses.courses.service.SearchMetrics;
+import com.courses.courses.service.SearchOverloadedException;
+import com.courses.courses.service.SearchUnavailableException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
 public class CourseSearchController {
 
     private final CourseSearchService courseSearchService;
-    private final DataIndexingService dataIndexingService;
+    private final ObjectProvider<DataIndexingService> dataIndexingService; // absent under the embedded profile
+    private final SearchExecutor searchExecutor;
+    private final SearchMetrics searchMetrics;
+    private final int maxBatchRequests;
+    private final ApplicationAvailability availability;
 
-    public CourseSearchController(CourseSearchService courseSearchService, DataIndexingService dataIndexingService) {
+    public CourseSearchController(CourseSearchService courseSearchService,
+                                  ObjectProvider<DataIndexingService> dataIndexingService,
+                                  SearchExecutor searchExecutor, SearchMetrics searchMetrics,
+                                  @Value("${courses.search.batch.max-requests:50}") int maxBatchRequests,
+                                  ApplicationAvailability availability) {
         this.courseSearchService = courseSearchService;
         this.dataIndexingService = dataIndexingService;
+        this.searchExecutor = searchExecutor;
+        this.searchMetrics = searchMetrics;
+        this.maxBatchRequests = maxBatchRequests;
+        this.availability = availability;
     }
 
+    // The search endpoints complete on the servlet thread in BLOCKING mode and when Elasticsearch answers in
+    // ASYNC mode; see SearchExecutor.
     @GetMapping("/search")
-    public ResponseEntity<SearchResponse> searchCourses(
+    public CompletableFuture<ResponseEntity<SearchResponse>> searchCourses(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) Integer minAge,
             @RequestParam(required = false) Integer maxAge,
@@ -37,7 +67,12 @@ public class CourseSearchController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
             @RequestParam(defaultValue = "UPCOMING") SearchRequest.SortOption sort,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "10") Integer size
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "FULL") SearchRequest.View view,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(defaultValue = "false") boolean facets,
+            HttpServletRequest servletRequest
     ) {
         SearchRequest request = new SearchRequest();
         request.setQ(q);
@@ -51,23 +86,52 @@ public class CourseSearchController {
         request.setSort(sort);
         request.setPage(page);
         request.setSize(size);
+        request.setCursor(cursor);
+        request.setView(view);
+        request.setFields(fields);
+        request.setFacets(facets);
 
-        SearchResponse response = courseSearchService.searchCourses(request);
-        return ResponseEntity.ok(response);
+        servletRequest.setAttribute(SearchMetrics.REQUEST_ATTRIBUTE, request);
+        if (servletRequest.getAttribute(SearchTimingInterceptor.START_ATTRIBUTE) instanceof Long start) {
+            searchMetrics.record("search", SearchMetrics.STAGE_BIND, request, System.nanoTime() - start);
+        }
+
+        return searchExecutor.execute(
+                        () -> courseSearchService.searchCourses(request),
+                        () -> courseSearchService.searchCoursesAsync(request))
+                .thenApply(ResponseEntity::ok);
     }
 
-    @GetMapping("/search/suggest")
-    public ResponseEntity<List<String>> getSuggestions(@RequestParam String q) {
+    @PostMapping("/search/batch")
+    public CompletableFuture<ResponseEntity<List<BatchSearchResult>>> searchBatch(
+            @RequestBody List<SearchRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchRequests) {
+            throw new IllegalArgumentException("A batch needs between 1 and " + maxBatchRequests + " searches");
+        }
+
+        return searchExecutor.execute(
+                        () -> courseSearchService.searchBatch(requests),
+                        () -> courseSearchService.searchBatchAsync(requests))
+                .thenApply(ResponseEntity::ok);
+    }
 
-        List<String> suggestions = courseSearchService.getSuggestions(q);
+    @GetMapping("/search/suggest")
+    public CompletableFuture<ResponseEntity<List<String>>> getSuggestions(@RequestParam String q) {
 
-        return ResponseEntity.ok(suggestions);
+        return searchExecutor.execute(
+                        () -> courseSearchService.getSuggestions(q),
+                        () -> courseSearchService.getSuggestionsAsync(q))
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/reindex")
     public ResponseEntity<String> reindexData() {
+        DataIndexingService indexing = dataIndexingService.getIfAvailable();
+        if (indexing == null) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("Reindex is not available in embedded mode");
+        }
         try {
-            dataIndexingService.reindexData();
+            indexing.reindexData();
             return ResponseEntity.ok("Data reindexed successfully");
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -75,8 +139,60 @@ public class CourseSearchController {
         }
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<?> startImport(@RequestParam String directory) {
+        DataIndexingService indexing = dataIndexingService.getIfAvailable();
+        if (indexing == null) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("Import is not available in embedded mode");
+        }
+        try {
+            return ResponseEntity.accepted().body(indexing.startImport(directory));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<ImportProgress> importProgress() {
+        DataIndexingService indexing = dataIndexingService.getIfAvailable();
+        ImportProgress progress = indexing != null ? indexing.importProgress() : null;
+        if (progress == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleSaturated(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Search capacity exhausted, retry later");
+    }
+
+    // Shed on arrival means the client should slow down; timing out in the queue means the backend is saturated.
+    @ExceptionHandler(SearchOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(SearchOverloadedException e) {
+        HttpStatus status = e.isTimedOut() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<String> handleUnavailable(SearchUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+        // Boot switches readiness on only after startup indexing and warm-up have finished.
         @GetMapping("/health")
         public ResponseEntity<String> health () {
+            if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Course Search API is warming up");
+            }
             return ResponseEntity.ok("Course Search API is running");
         }
     }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.courses.courses.controller;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.service.CourseWriteBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Incremental course changes. Writes are buffered and applied in batches, so a 202 means the change was
+ * accepted, not that it is searchable yet; it reaches the index within {@code courses.cdc.flush-interval}, and
+ * cached results and in-memory snapshots catch up within their {@code change-debounce}.
+ */
+@RestController
+@RequestMapping("/api/courses")
+@Profile("!embedded")
+public class CourseWriteController {
+
+    private final CourseWriteBuffer courseWriteBuffer;
+    private final ObjectMapper objectMapper;
+
+    public CourseWriteController(CourseWriteBuffer courseWriteBuffer, ObjectMapper objectMapper) {
+        this.courseWriteBuffer = courseWriteBuffer;
+        this.objectMapper = objectMapper;
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<String> upsertCourse(@PathVariable String id, @RequestParam long version,
+                                               @RequestBody CourseDocument course) {
+        return accepted(courseWriteBuffer.upsert(id, course, version), id, version);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<String> patchCourse(@PathVariable String id, @RequestParam long version,
+                                              @RequestBody ObjectNode changes) throws JsonProcessingException {
+        Set<String> fieldNames = new LinkedHashSet<>();
+        changes.fieldNames().forEachRemaining(fieldNames::add);
+        CourseDocument values = objectMapper.treeToValue(changes, CourseDocument.class);
+        return accepted(courseWriteBuffer.patch(id, values, fieldNames, version), id, version);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> deleteCourse(@PathVariable String id, @RequestParam long version) {
+        return accepted(courseWriteBuffer.delete(id, version), id, version);
+    }
+
+    private ResponseEntity<String> accepted(boolean accepted, String id, long version) {
+        if (!accepted) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Version " + version + " of course " + id + " conflicts with a pending change");
+        }
+        return ResponseEntity.accepted().body("Change to course " + id + " queued");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleSaturated(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Write buffer full, retry later");
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, JsonProcessingException.class})
+    public ResponseEntity<String> handleBadRequest(Exception e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -8,10 +8,19 @@ import org.springframework.data.elasticsearch.annotations.*;
 import java.math.BigDecimal;
 import java.time.Instant;
 
-@Document(indexName = "courses")
+@Document(indexName = CourseDocument.INDEX_NAME, createIndex = false)
+@Setting(settingPath = CourseDocument.SETTINGS_PATH)
+@Mapping(mappingPath = CourseDocument.MAPPING_PATH)
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CourseDocument {
 
+    // Alias that always points at the live versioned index, see CourseIndexManager.
+    public static final String INDEX_NAME = "courses";
+
+    // Applied to every versioned index through the index template, see CourseIndexManager.
+    public static final String SETTINGS_PATH = "elasticsearch/course-settings.json";
+    public static final String MAPPING_PATH = "elasticsearch/course-mapping.json";
+
     @Id
     private String id;
 
@@ -27,7 +36,7 @@ public class CourseDocument {
     @Field(type = FieldType.Keyword)
     private CourseType type;
 
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, index = false, docValues = false)
     private String gradeRange;
 
     @Field(type = FieldType.Integer)
@@ -36,9 +45,10 @@ public class CourseDocument {
     @Field(type = FieldType.Integer)
     private Integer maxAge;
 
-    @Field(type = FieldType.Double)
+    @Field(type = FieldType.Scaled_Float, scalingFactor = 100)
     private BigDecimal price;
 
+    @Field(type = FieldType.Date, format = DateFormat.strict_date_optional_time)
 @JsonFormat(
         shape = JsonFormat.Shape.STRING,
         pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSS]X",
@@ -49,6 +59,10 @@ public class CourseDocument {
     @Field(type = FieldType.Search_As_You_Type)
     private String titleSuggest;
 
+    // Version from the system of record; changes with a version at or below the stored one are ignored.
+    @Field(type = FieldType.Long, index = false, docValues = false)
+    private Long sourceVersion;
+
     public enum CourseType {
         ONE_TIME, COURSE, CLUB
     }
@@ -140,4 +154,12 @@ public class CourseDocument {
     public void setTitleSuggest(String titleSuggest) {
         this.titleSuggest = titleSuggest;
     }
+
+    public Long getSourceVersion() {
+        return sourceVersion;
+    }
+
+    public void setSourceVersion(Long sourceVersion) {
+        this.sourceVersion = sourceVersion;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.courses.courses.dto;
+
+/**
+ * One entry of a batch search: either the response, or the HTTP status and message the same request would
+ * have failed with on its own.
+ */
+public class BatchSearchResult {
+
+    private int status;
+    private SearchResponse response;
+    private String error;
+
+    public BatchSearchResult() {
+    }
+
+    public BatchSearchResult(SearchResponse response) {
+        this.status = 200;
+        this.response = response;
+    }
+
+    public BatchSearchResult(int status, String error) {
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public SearchResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(SearchResponse response) {
+        this.response = response;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,137 @@
+package com.courses.courses.dto;
+
+import com.courses.courses.document.CourseDocument;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A course as written in a projected search response ({@code view=CARD} or {@code fields=}). Only the fields
+ * that were fetched are written; full responses keep writing every {@link CourseDocument} field, nulls included.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CourseCard {
+
+    private String id;
+    private String title;
+    private String description;
+    private String category;
+    private CourseDocument.CourseType type;
+    private String gradeRange;
+    private Integer minAge;
+    private Integer maxAge;
+    private BigDecimal price;
+    @JsonFormat(
+            shape = JsonFormat.Shape.STRING,
+            pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSS]X",
+            timezone = "UTC"
+    )
+    private Instant nextSessionDate;
+    private String titleSuggest;
+
+    public static CourseCard from(CourseDocument course) {
+        CourseCard card = new CourseCard();
+        card.setId(course.getId());
+        card.setTitle(course.getTitle());
+        card.setDescription(course.getDescription());
+        card.setCategory(course.getCategory());
+        card.setType(course.getType());
+        card.setGradeRange(course.getGradeRange());
+        card.setMinAge(course.getMinAge());
+        card.setMaxAge(course.getMaxAge());
+        card.setPrice(course.getPrice());
+        card.setNextSessionDate(course.getNextSessionDate());
+        card.setTitleSuggest(course.getTitleSuggest());
+        return card;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public CourseDocument.CourseType getType() {
+        return type;
+    }
+
+    public void setType(CourseDocument.CourseType type) {
+        this.type = type;
+    }
+
+    public String getGradeRange() {
+        return gradeRange;
+    }
+
+    public void setGradeRange(String gradeRange) {
+        this.gradeRange = gradeRange;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Instant getNextSessionDate() {
+        return nextSessionDate;
+    }
+
+    public void setNextSessionDate(Instant nextSessionDate) {
+        this.nextSessionDate = nextSessionDate;
+    }
+
+    public String getTitleSuggest() {
+        return titleSuggest;
+    }
+
+    public void setTitleSuggest(String titleSuggest) {
+        this.titleSuggest = titleSuggest;
+    }
+}
@@ -0,0 +1,31 @@
+package com.courses.courses.dto;
+
+public class FacetBucket {
+
+    private String key;
+    private long count;
+
+    public FacetBucket() {
+    }
+
+    public FacetBucket(String key, long count) {
+        this.key = key;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
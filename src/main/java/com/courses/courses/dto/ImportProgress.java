@@ -0,0 +1,133 @@
+package com.courses.courses.dto;
+
+import java.util.List;
+
+public class ImportProgress {
+
+    private String state;
+    private String directory;
+    private String index;
+    private int filesTotal;
+    private int filesCompleted;
+    private int filesSkipped;
+    private int filesFailed;
+    private long documents;
+    private long failed;
+    private long bytes;
+    private double docsPerSecond;
+    private double bytesPerSecond;
+    private long elapsedMillis;
+    private List<String> errors;
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public int getFilesTotal() {
+        return filesTotal;
+    }
+
+    public void setFilesTotal(int filesTotal) {
+        this.filesTotal = filesTotal;
+    }
+
+    public int getFilesCompleted() {
+        return filesCompleted;
+    }
+
+    public void setFilesCompleted(int filesCompleted) {
+        this.filesCompleted = filesCompleted;
+    }
+
+    public int getFilesSkipped() {
+        return filesSkipped;
+    }
+
+    public void setFilesSkipped(int filesSkipped) {
+        this.filesSkipped = filesSkipped;
+    }
+
+    public int getFilesFailed() {
+        return filesFailed;
+    }
+
+    public void setFilesFailed(int filesFailed) {
+        this.filesFailed = filesFailed;
+    }
+
+    public long getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(long documents) {
+        this.documents = documents;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    public void setDocsPerSecond(double docsPerSecond) {
+        this.docsPerSecond = docsPerSecond;
+    }
+
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public void setBytesPerSecond(double bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
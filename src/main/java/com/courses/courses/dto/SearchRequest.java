@@ -1,9 +1,11 @@
 package com.courses.courses.dto;
 
 import com.courses.courses.document.CourseDocument;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 
 public class SearchRequest {
 
@@ -21,6 +23,11 @@ public class SearchRequest {
     private Integer page = 0;
     @Builder.Default
     private Integer size = 10;
+    private String cursor; // point-in-time scan token, "*" to start one
+    @Builder.Default
+    private View view = View.FULL;
+    private List<String> fields; // explicit _source includes, overrides view
+    private boolean facets;
 
     public enum SortOption {
         UPCOMING("nextSessionDate", "asc"),
@@ -44,6 +51,22 @@ public class SearchRequest {
         }
     }
 
+    public enum View {
+        CARD("id", "title", "price", "nextSessionDate"),
+        FULL;
+
+        private final List<String> includes;
+
+        View(String... includes) {
+            this.includes = List.of(includes);
+        }
+
+        // Empty means the whole _source.
+        public List<String> getIncludes() {
+            return includes;
+        }
+    }
+
     public String getQ() {
         return q;
     }
@@ -131,4 +154,42 @@ public class SearchRequest {
     public void setSize(Integer size) {
         this.size = size;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public View getView() {
+        return view;
+    }
+
+    public void setView(View view) {
+        this.view = view;
+    }
+
+    // Whether only some fields are fetched, see CourseQueryBuilder.buildSourceFilter.
+    @JsonIgnore
+    public boolean isProjected() {
+        return (fields != null && !fields.isEmpty()) || (view != null && view != View.FULL);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public boolean isFacets() {
+        return facets;
+    }
+
+    public void setFacets(boolean facets) {
+        this.facets = facets;
+    }
 }
\ No newline at end of file
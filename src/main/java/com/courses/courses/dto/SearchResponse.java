@@ -1,8 +1,14 @@
 package com.courses.courses.dto;
 
 import com.courses.courses.document.CourseDocument;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.util.List;
+import java.util.Map;
 
+@JsonPropertyOrder({"total", "courses", "page", "size", "totalPages", "nextCursor", "facets"})
 public class SearchResponse {
 
     private long total;
@@ -10,6 +16,10 @@ public class SearchResponse {
     private int page;
     private int size;
     private int totalPages;
+    private String nextCursor;
+    private Map<String, List<FacetBucket>> facets;
+    @JsonIgnore
+    private boolean projected;
 
     public long getTotal() {
         return total;
@@ -19,10 +29,18 @@ public class SearchResponse {
         this.total = total;
     }
 
+    @JsonIgnore
     public List<CourseDocument> getCourses() {
         return courses;
     }
 
+    // Projected courses are written as cards, which leave out the fields that weren't fetched.
+    @JsonProperty("courses")
+    public List<?> getCoursesForOutput() {
+        return projected && courses != null ? courses.stream().map(CourseCard::from).toList() : courses;
+    }
+
+    @JsonProperty("courses")
     public void setCourses(List<CourseDocument> courses) {
         this.courses = courses;
     }
@@ -50,4 +68,28 @@ public class SearchResponse {
     public void setTotalPages(int totalPages) {
         this.totalPages = totalPages;
     }
-}
\ No newline at end of file
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Map<String, List<FacetBucket>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, List<FacetBucket>> facets) {
+        this.facets = facets;
+    }
+
+    public boolean isProjected() {
+        return projected;
+    }
+
+    public void setProjected(boolean projected) {
+        this.projected = projected;
+    }
+}
@@ -0,0 +1,245 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.IngestionReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Groups documents into count- and byte-bounded {@code _bulk} requests and keeps at most
+ * {@code maxInFlight} of them running at once. {@link #add} blocks while the window is full,
+ * so memory stays bounded by the window no matter how large the source is.
+ */
+@Slf4j
+public class BulkIndexer implements AutoCloseable {
+
+    private static final int MAX_RECORDED_FAILURES = 100;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchConverter converter;
+    private final String indexName;
+    private final int batchSize;
+    private final long batchBytes;
+    private final int maxInFlight;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    private final Semaphore inFlight;
+    private final ExecutorService executor;
+    private final long startedAt = System.nanoTime();
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    private List<PendingDocument> currentBatch = new ArrayList<>();
+    private long currentBatchBytes;
+    private boolean closed;
+
+    public BulkIndexer(ElasticsearchClient elasticsearchClient, ElasticsearchConverter converter, String indexName,
+                       int batchSize, long batchBytes, int maxInFlight, int maxRetries, Duration retryBackoff) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.converter = converter;
+        this.indexName = indexName;
+        this.batchSize = batchSize;
+        this.batchBytes = batchBytes;
+        this.maxInFlight = maxInFlight;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.executor = Executors.newFixedThreadPool(maxInFlight);
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    /**
+     * Told the outcome of each document it was added with, once the document is indexed or has finally failed.
+     * Called on the indexer's own threads.
+     */
+    public interface Acknowledgement {
+        void acknowledge(boolean indexed);
+    }
+
+    public void add(CourseDocument course, long sizeHint) {
+        add(course, sizeHint, null);
+    }
+
+    public synchronized void add(CourseDocument course, long sizeHint, Acknowledgement acknowledgement) {
+        if (closed) {
+            throw new IllegalStateException("Bulk indexer for " + indexName + " is closed");
+        }
+        currentBatch.add(new PendingDocument(course.getId(), converter.mapObject(course), acknowledgement));
+        currentBatchBytes += sizeHint;
+        bytes.addAndGet(sizeHint);
+
+        if (currentBatch.size() >= batchSize || currentBatchBytes >= batchBytes) {
+            dispatch();
+        }
+    }
+
+    public synchronized void flush() {
+        if (!currentBatch.isEmpty()) {
+            dispatch();
+        }
+    }
+
+    public IngestionReport report() {
+        IngestionReport report = new IngestionReport();
+        report.setIndex(indexName);
+        report.setDocuments(indexed.get());
+        report.setFailed(failed.get());
+        report.setRetried(retried.get());
+        report.setBatches(batches.get());
+        report.setBytes(bytes.get());
+        report.setElapsedMillis(Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+        synchronized (failures) {
+            report.setFailures(List.copyOf(failures));
+        }
+        return report;
+    }
+
+    public IngestionReport finish() {
+        synchronized (this) {
+            if (!closed) {
+                flush();
+                closed = true;
+            }
+        }
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+        executor.shutdown();
+        return report();
+    }
+
+    @Override
+    public void close() {
+        finish();
+    }
+
+    private void dispatch() {
+        List<PendingDocument> batch = currentBatch;
+        currentBatch = new ArrayList<>(Math.min(batchSize, 1024));
+        currentBatchBytes = 0;
+
+        inFlight.acquireUninterruptibly();
+        batches.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void send(List<PendingDocument> batch) {
+        List<PendingDocument> pending = batch;
+        int attempt = 0;
+
+        while (true) {
+            List<PendingDocument> retryable = new ArrayList<>();
+            List<PendingDocument> request = pending;
+            try {
+                BulkResponse response = elasticsearchClient.bulk(b -> b
+                        .index(indexName)
+                        .operations(toOperations(request)));
+
+                if (!response.errors()) {
+                    indexed.addAndGet(request.size());
+                    request.forEach(doc -> acknowledge(doc, true));
+                } else {
+                    List<BulkResponseItem> items = response.items();
+                    for (int i = 0; i < items.size(); i++) {
+                        BulkResponseItem item = items.get(i);
+                        if (item.error() == null) {
+                            indexed.incrementAndGet();
+                            acknowledge(request.get(i), true);
+                        } else if (item.status() == 429) {
+                            retryable.add(request.get(i));
+                        } else {
+                            recordFailure(request.get(i), item.error().type() + ": " + item.error().reason());
+                        }
+                    }
+                }
+            } catch (IOException | ElasticsearchException e) {
+                log.warn("Bulk request of {} documents to {} failed: {}", request.size(), indexName, e.getMessage());
+                retryable = request;
+            }
+
+            if (retryable.isEmpty()) {
+                return;
+            }
+            if (attempt >= maxRetries) {
+                retryable.forEach(doc -> recordFailure(doc, "gave up after " + maxRetries + " retries"));
+                return;
+            }
+
+            attempt++;
+            retried.addAndGet(retryable.size());
+            try {
+                Thread.sleep(retryBackoff.toMillis() << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                retryable.forEach(doc -> recordFailure(doc, "interrupted before retry"));
+                return;
+            }
+            pending = retryable;
+        }
+    }
+
+    private List<BulkOperation> toOperations(List<PendingDocument> batch) {
+        List<BulkOperation> operations = new ArrayList<>(batch.size());
+        for (PendingDocument doc : batch) {
+            operations.add(BulkOperation.of(o -> o
+                    .index(i -> i
+                            .id(doc.id())
+                            .document(doc.source()))));
+        }
+        return operations;
+    }
+
+    private void recordFailure(PendingDocument doc, String reason) {
+        failed.incrementAndGet();
+        synchronized (failures) {
+            if (failures.size() < MAX_RECORDED_FAILURES) {
+                failures.add(doc.id() + ": " + reason);
+            }
+        }
+        acknowledge(doc, false);
+    }
+
+    private static void acknowledge(PendingDocument doc, boolean indexed) {
+        if (doc.acknowledgement() != null) {
+            doc.acknowledgement().acknowledge(indexed);
+        }
+    }
+
+    private record PendingDocument(String id, Map<String, Object> source, Acknowledgement acknowledgement) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.IngestionReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.function.ObjLongConsumer;
+
+@Slf4j
+@Service
+@Profile("!embedded")
+public class BulkIngestionService {
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final CourseJsonReader courseJsonReader;
+
+    @Value("${courses.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${courses.ingest.batch-bytes:5242880}")
+    private long batchBytes;
+
+    @Value("${courses.ingest.max-in-flight:4}")
+    private int maxInFlight;
+
+    @Value("${courses.ingest.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${courses.ingest.retry-backoff:200ms}")
+    private Duration retryBackoff;
+
+    public BulkIngestionService(ElasticsearchClient elasticsearchClient, ElasticsearchOperations elasticsearchOperations, CourseJsonReader courseJsonReader) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.courseJsonReader = courseJsonReader;
+    }
+
+    public BulkIndexer openIndexer(String indexName) {
+        return new BulkIndexer(elasticsearchClient, elasticsearchOperations.getElasticsearchConverter(), indexName,
+                batchSize, batchBytes, maxInFlight, maxRetries, retryBackoff);
+    }
+
+    /**
+     * Streams courses from either a JSON array or newline-delimited JSON into {@code indexName}.
+     * Only the documents of the in-flight window are held in memory at any time.
+     */
+    public IngestionReport ingest(InputStream inputStream, String indexName) throws IOException {
+        BulkIndexer indexer = openIndexer(indexName);
+        try {
+            streamInto(inputStream, indexer);
+        } finally {
+            indexer.finish();
+        }
+
+        IngestionReport report = indexer.report();
+        log.info("Ingested {} courses into {} in {} batches ({} failed, {} retried) in {} ms",
+                report.getDocuments(), indexName, report.getBatches(), report.getFailed(),
+                report.getRetried(), report.getElapsedMillis());
+        return report;
+    }
+
+    public long streamInto(InputStream inputStream, BulkIndexer indexer) throws IOException {
+        return readCourses(inputStream, indexer::add);
+    }
+
+    public long readCourses(InputStream inputStream, ObjLongConsumer<CourseDocument> consumer) throws IOException {
+        return courseJsonReader.readCourses(inputStream, consumer);
+    }
+}
@@ -0,0 +1,185 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.courses.courses.document.CourseDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the whole catalog out of the index once per change and hands the snapshot to the in-memory views
+ * built from it ({@link SuggestionEngine}, {@link LocalSearchEngine}) as a {@link CourseCatalogChangedEvent},
+ * so one scan serves all of them. A new index is read in full; single-course writes only fetch the courses
+ * that changed, at most once per {@code change-debounce}.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class CourseCatalog {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration changeDebounce;
+    private final ScheduledExecutorService reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "course-catalog-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private final AtomicBoolean updateQueued = new AtomicBoolean();
+
+    // Guarded by this; ids written since the last update.
+    private final Set<String> changedIds = new HashSet<>();
+
+    // Only touched on the reload thread.
+    private Map<String, CourseDocument> courses;
+    private volatile long lastLoaded;
+
+    public CourseCatalog(ElasticsearchOperations elasticsearchOperations, ApplicationEventPublisher eventPublisher,
+                         @Value("${courses.suggest.local.enabled:true}") boolean suggestionsEnabled,
+                         @Value("${courses.search.local.enabled:true}") boolean localSearchEnabled,
+                         @Value("${courses.catalog.change-debounce:5s}") Duration changeDebounce) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.eventPublisher = eventPublisher;
+        this.enabled = suggestionsEnabled || localSearchEnabled;
+        this.changeDebounce = changeDebounce;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduleReload();
+    }
+
+    @EventListener
+    public void onIndexChanged(CourseIndexChangedEvent event) {
+        scheduleReload();
+    }
+
+    @EventListener
+    public void onDocumentsChanged(CourseDocumentsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            changedIds.addAll(event.ids());
+        }
+        if (!updateQueued.compareAndSet(false, true)) {
+            return;
+        }
+        long delay = Math.max(0, lastLoaded + changeDebounce.toMillis() - System.currentTimeMillis());
+        reloadExecutor.schedule(() -> {
+            updateQueued.set(false);
+            try {
+                if (courses == null) {
+                    reload();
+                } else {
+                    update();
+                }
+            } catch (Exception e) {
+                log.warn("Catalog update failed, keeping the previous snapshot: {}", e.getMessage());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Changes that arrive while a reload is queued are covered by that reload.
+    private void scheduleReload() {
+        if (!enabled || !reloadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        reloadExecutor.execute(() -> {
+            reloadQueued.set(false);
+            try {
+                reload();
+            } catch (Exception e) {
+                log.warn("Catalog reload failed, keeping the previous snapshot: {}", e.getMessage());
+            }
+        });
+    }
+
+    void reload() {
+        long start = System.nanoTime();
+        // Anything written from here on is in the scan.
+        synchronized (this) {
+            changedIds.clear();
+        }
+
+        Map<String, CourseDocument> loaded = new LinkedHashMap<>();
+        fetch(CourseQueryBuilder.ALL_COURSES, loaded);
+        courses = loaded;
+
+        log.info("Catalog reloaded with {} courses in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        publish();
+    }
+
+    void update() {
+        List<String> ids;
+        synchronized (this) {
+            ids = List.copyOf(changedIds);
+            changedIds.clear();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<String, CourseDocument> fetched = new HashMap<>();
+        try {
+            fetch(Query.of(q -> q.bool(b -> b
+                    .must(CourseQueryBuilder.ALL_COURSES)
+                    .filter(f -> f.ids(i -> i.values(ids))))), fetched);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedIds.addAll(ids);
+            }
+            throw e;
+        }
+
+        // Deleted courses are tombstones now, so they aren't fetched and drop out of the snapshot.
+        ids.forEach(courses::remove);
+        courses.putAll(fetched);
+        log.debug("Catalog updated with {} changed courses", ids.size());
+        publish();
+    }
+
+    private void fetch(Query query, Map<String, CourseDocument> into) {
+        NativeQuery nativeQuery = NativeQuery.builder()
+                .withQuery(query)
+                .withPageable(PageRequest.of(0, 1000))
+                .build();
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(nativeQuery, CourseDocument.class)) {
+            hits.forEachRemaining(hit -> into.put(hit.getContent().getId(), hit.getContent()));
+        }
+    }
+
+    private void publish() {
+        lastLoaded = System.currentTimeMillis();
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent(List.copyOf(courses.values())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+}
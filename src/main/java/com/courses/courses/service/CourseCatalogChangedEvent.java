@@ -0,0 +1,12 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+
+import java.util.List;
+
+/**
+ * Published by {@link CourseCatalog} with a fresh snapshot of every live course. Listeners run on the
+ * catalog's reload thread and must not modify the documents.
+ */
+public record CourseCatalogChangedEvent(List<CourseDocument> courses) {
+}
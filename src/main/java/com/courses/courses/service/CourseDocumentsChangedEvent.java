@@ -0,0 +1,11 @@
+package com.courses.courses.service;
+
+import java.util.Set;
+
+/**
+ * Published after individual courses behind the {@code courses} alias were written, deleted or updated in place,
+ * as opposed to the whole index being replaced ({@link CourseIndexChangedEvent}). Listeners decide how fresh
+ * their views need to be; a rebuild per event is usually too much under a steady stream of writes.
+ */
+public record CourseDocumentsChangedEvent(Set<String> ids) {
+}
@@ -0,0 +1,9 @@
+package com.courses.courses.service;
+
+/**
+ * Published after the {@code courses} alias moved to a freshly loaded index, so in-memory views
+ * derived from the index can be dropped or rebuilt. Single-course writes publish
+ * {@link CourseDocumentsChangedEvent} instead.
+ */
+public record CourseIndexChangedEvent(String indexName, String reason) {
+}
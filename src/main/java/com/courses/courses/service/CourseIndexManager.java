@@ -0,0 +1,223 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch._types.mapping.PropertyBase;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import com.courses.courses.document.CourseDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Owns the versioned {@code courses-v<timestamp>} indices behind the {@link CourseDocument#INDEX_NAME} alias.
+ * Readers only ever see the alias, so a new index can be loaded and warmed while the old one keeps serving.
+ */
+@Slf4j
+@Service
+@Profile("!embedded")
+public class CourseIndexManager {
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    @Value("${courses.index.shards:1}")
+    private int shards;
+
+    @Value("${courses.index.replicas:1}")
+    private int replicas;
+
+    @Value("${courses.index.refresh-interval:1s}")
+    private String refreshInterval;
+
+    public CourseIndexManager(ElasticsearchClient elasticsearchClient) {
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    public String alias() {
+        return CourseDocument.INDEX_NAME;
+    }
+
+    public boolean aliasExists() {
+        try {
+            return elasticsearchClient.indices().existsAlias(e -> e.name(alias())).value();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to check alias " + alias(), e);
+        }
+    }
+
+    public Set<String> currentIndices() {
+        try {
+            if (!aliasExists()) {
+                return Set.of();
+            }
+            return elasticsearchClient.indices().getAlias(g -> g.name(alias())).result().keySet();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to resolve alias " + alias(), e);
+        }
+    }
+
+    public boolean indexExists(String indexName) {
+        try {
+            return elasticsearchClient.indices().exists(e -> e.index(indexName)).value();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to check index " + indexName, e);
+        }
+    }
+
+    public String templateName() {
+        return alias() + "-template";
+    }
+
+    /**
+     * Installs the composable template every {@code courses-v*} index is created from: the analysis settings
+     * and mapping from the resource files plus the shard, replica and refresh settings configured here.
+     */
+    public void putIndexTemplate() {
+        try (InputStream settingsJson = new ClassPathResource(CourseDocument.SETTINGS_PATH).getInputStream();
+             InputStream mappingJson = new ClassPathResource(CourseDocument.MAPPING_PATH).getInputStream()) {
+            IndexSettings settings = IndexSettings.of(s -> s
+                    .withJson(settingsJson)
+                    .numberOfShards(String.valueOf(shards))
+                    .numberOfReplicas(String.valueOf(replicas))
+                    .refreshInterval(t -> t.time(refreshInterval)));
+            TypeMapping mapping = TypeMapping.of(m -> m.withJson(mappingJson));
+
+            elasticsearchClient.indices().putIndexTemplate(p -> p
+                    .name(templateName())
+                    .indexPatterns(alias() + "-v*")
+                    .template(t -> t
+                            .settings(settings)
+                            .mappings(mapping)));
+            log.info("Index template {} installed", templateName());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to install index template " + templateName(), e);
+        }
+    }
+
+    /**
+     * Compares the mapping behind the alias with the declared one.
+     *
+     * @return one message per field that is missing or has a different type, empty when they match
+     */
+    public List<String> validateMapping() {
+        try (InputStream mappingJson = new ClassPathResource(CourseDocument.MAPPING_PATH).getInputStream()) {
+            TypeMapping declared = TypeMapping.of(m -> m.withJson(mappingJson));
+
+            List<String> mismatches = new ArrayList<>();
+            elasticsearchClient.indices().getMapping(g -> g.index(alias())).result().forEach((index, live) ->
+                    compareProperties(index + ":", declared.properties(), live.mappings().properties(), mismatches));
+            return mismatches;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to validate mapping of " + alias(), e);
+        }
+    }
+
+    private void compareProperties(String path, Map<String, Property> declared, Map<String, Property> live,
+                                   List<String> mismatches) {
+        declared.forEach((name, property) -> {
+            String field = path + name;
+            Property actual = live.get(name);
+            if (actual == null) {
+                mismatches.add(field + " is missing");
+            } else if (actual._kind() != property._kind()) {
+                mismatches.add(field + " is " + actual._kind().jsonValue() + ", expected " + property._kind().jsonValue());
+            } else if (property._get() instanceof PropertyBase declaredBase && actual._get() instanceof PropertyBase liveBase) {
+                compareProperties(field + ".", declaredBase.fields(), liveBase.fields(), mismatches);
+            }
+        });
+    }
+
+    /**
+     * Creates an empty index tuned for loading: no replicas and no periodic refresh. Mapping and
+     * remaining settings come from the index template.
+     */
+    public String createVersionedIndex() {
+        String indexName = alias() + "-v" + System.currentTimeMillis();
+
+        try {
+            elasticsearchClient.indices().create(c -> c
+                    .index(indexName)
+                    .settings(s -> s
+                            .numberOfReplicas("0")
+                            .refreshInterval(t -> t.time("-1"))));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create index " + indexName, e);
+        }
+        log.info("Created index {}", indexName);
+        return indexName;
+    }
+
+    /**
+     * Restores serving settings on a freshly loaded index and makes its documents visible.
+     */
+    public void finishLoading(String indexName) {
+        try {
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(indexName)
+                    .settings(s -> s
+                            .numberOfReplicas(String.valueOf(replicas))
+                            .refreshInterval(t -> t.time(refreshInterval))));
+            elasticsearchClient.indices().refresh(r -> r.index(indexName));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to finalize index " + indexName, e);
+        }
+    }
+
+    /**
+     * Atomically points the alias at {@code indexName} and drops the indices it pointed at before.
+     */
+    public void swapAlias(String indexName) {
+        List<String> previous = new ArrayList<>(currentIndices());
+        previous.remove(indexName);
+
+        try {
+            boolean legacyIndex = hasLegacyConcreteIndex();
+
+            elasticsearchClient.indices().updateAliases(u -> {
+                if (legacyIndex) {
+                    // Dropped in the same request as the alias is created, so the name never resolves to nothing.
+                    log.warn("Replacing concrete index {} with an alias", alias());
+                    u.actions(a -> a.removeIndex(r -> r.index(alias())));
+                }
+                for (String old : previous) {
+                    u.actions(a -> a.remove(r -> r.index(old).alias(alias())));
+                }
+                return u.actions(a -> a.add(ad -> ad.index(indexName).alias(alias())));
+            });
+            log.info("Alias {} now points at {} (was {})", alias(), indexName, previous);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to swap alias " + alias() + " to " + indexName, e);
+        }
+
+        if (!previous.isEmpty()) {
+            try {
+                elasticsearchClient.indices().delete(d -> d.index(previous));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Alias swapped but old indices {} could not be deleted: {}", previous, e.getMessage());
+            }
+        }
+    }
+
+    public void deleteIndex(String indexName) {
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(indexName));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete index " + indexName, e);
+        }
+    }
+
+    // Deployments from before the alias existed have a concrete index under the alias name.
+    private boolean hasLegacyConcreteIndex() throws IOException {
+        return elasticsearchClient.indices().exists(e -> e.index(alias())).value() && !aliasExists();
+    }
+}
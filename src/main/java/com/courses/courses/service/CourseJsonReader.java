@@ -0,0 +1,54 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Streams courses out of catalog files, for both the Elasticsearch ingestion path and the embedded engine.
+ */
+@Component
+public class CourseJsonReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader courseReader;
+
+    public CourseJsonReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.courseReader = objectMapper.readerFor(CourseDocument.class);
+    }
+
+    /**
+     * Parses courses from either a JSON array or newline-delimited JSON one at a time, passing each with
+     * its size in the input.
+     */
+    public long readCourses(InputStream inputStream, ObjLongConsumer<CourseDocument> consumer) throws IOException {
+        long count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+
+            while (token == JsonToken.START_OBJECT) {
+                long start = parser.currentTokenLocation().getByteOffset();
+                CourseDocument course = courseReader.readValue(parser);
+                long end = parser.currentLocation().getByteOffset();
+
+                course.setTitleSuggest(course.getTitle());
+                consumer.accept(course, Math.max(end - start, 0));
+                count++;
+
+                token = parser.nextToken();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,330 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.*;
+import co.elastic.clients.json.JsonData;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Translates a {@link SearchRequest} into Elasticsearch query, sort and facet aggregation clauses.
+ * Clauses that don't depend on a request value (sorts, type and category filters, the default date filter
+ * and the unfiltered listing query) are built once and shared, since client query objects are immutable;
+ * a search only builds the clauses for the values it binds.
+ */
+@Component
+public class CourseQueryBuilder {
+
+    public enum Facet {
+        CATEGORY("category"), TYPE("type"), PRICE("price"), AGE("age");
+
+        private final String name;
+
+        Facet(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Sub-aggregation under each facet's filter aggregation that holds the buckets.
+    public static final String FACET_VALUES = "values";
+
+    private static final int FACET_TERMS_SIZE = 50;
+    private static final double PRICE_INTERVAL = 25;
+    private static final int[][] AGE_BANDS = {{5, 7}, {8, 10}, {11, 13}, {14, 18}};
+
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of(
+            "id", "title", "description", "category", "type", "gradeRange",
+            "minAge", "maxAge", "price", "nextSessionDate", "titleSuggest");
+
+    private static final Map<SearchRequest.SortOption, List<SortOptions>> SORTS = compileSorts();
+    private static final Map<CourseDocument.CourseType, Query> TYPE_FILTERS = compileTypeFilters();
+
+    // Deleted courses stay in the index as tombstones until the next reindex.
+    private static final Query TOMBSTONE = termQuery("deleted", "true");
+
+    /**
+     * Every course in the index, without tombstones; for scans that don't go through a search request.
+     */
+    public static final Query ALL_COURSES = Query.of(q -> q.bool(b -> b.mustNot(TOMBSTONE)));
+
+    // Category filters are cached by value; past this many distinct values new ones are built per call.
+    private static final int MAX_CACHED_CATEGORIES = 1024;
+
+    private record NowFilters(long bucket, Query upcoming, Query listing) {
+    }
+
+    private final SearchClock searchClock;
+    private final Map<String, Query> categoryFilters = new ConcurrentHashMap<>();
+    private volatile NowFilters nowFilters;
+
+    // Truncating "now" keeps the default date filter byte-identical within a bucket, so the node query cache
+    // and shard request cache can reuse it. Date math (now/m) would not help: ES never caches requests using now.
+    public CourseQueryBuilder(SearchClock searchClock) {
+        this.searchClock = searchClock;
+    }
+
+    public Query buildSearchQuery(SearchRequest request) {
+        Query text = textQuery(request);
+        Map<Facet, Query> filters = facetFilters(request);
+        if (text == null && filters.isEmpty() && request.getStartDate() == null) {
+            return nowFilters().listing();
+        }
+
+        List<Query> filterClauses = new ArrayList<>(filters.size() + 1);
+        filterClauses.add(dateFilter(request));
+        filterClauses.addAll(filters.values());
+        return bool(text, filterClauses);
+    }
+
+    /**
+     * Text and date clauses only. With facets on, the facet filters go to {@link #buildPostFilter}
+     * instead so they narrow the hits but not the facet counts.
+     */
+    public Query buildFacetedQuery(SearchRequest request) {
+        Query text = textQuery(request);
+        if (text == null && request.getStartDate() == null) {
+            return nowFilters().listing();
+        }
+        return bool(text, List.of(dateFilter(request)));
+    }
+
+    /**
+     * @return the facet filters as a post filter, or {@code null} when none are selected
+     */
+    public Query buildPostFilter(SearchRequest request) {
+        Map<Facet, Query> filters = facetFilters(request);
+        if (filters.isEmpty()) {
+            return null;
+        }
+        return Query.of(q -> q.bool(b -> b.filter(List.copyOf(filters.values()))));
+    }
+
+    /**
+     * One aggregation per facet, each wrapped in a filter holding the other facets' selections, so a selected
+     * category still shows the counts of its sibling categories.
+     */
+    public Map<String, Aggregation> buildFacetAggregations(SearchRequest request) {
+        Map<Facet, Query> filters = facetFilters(request);
+        Map<String, Aggregation> aggregations = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            List<Query> others = filters.entrySet().stream()
+                    .filter(entry -> entry.getKey() != facet)
+                    .map(Map.Entry::getValue)
+                    .toList();
+            aggregations.put(facet.getName(), Aggregation.of(a -> a
+                    .filter(f -> f.bool(b -> b.filter(others)))
+                    .aggregations(FACET_VALUES, facetValues(facet))));
+        }
+        return aggregations;
+    }
+
+    private Aggregation facetValues(Facet facet) {
+        return switch (facet) {
+            case CATEGORY -> Aggregation.of(a -> a.terms(t -> t.field("category").size(FACET_TERMS_SIZE)));
+            case TYPE -> Aggregation.of(a -> a.terms(t -> t.field("type").size(FACET_TERMS_SIZE)));
+            case PRICE -> Aggregation.of(a -> a.histogram(h -> h.field("price").interval(PRICE_INTERVAL).minDocCount(1)));
+            case AGE -> Aggregation.of(a -> a.filters(f -> f.filters(b -> b.keyed(ageBands()))));
+        };
+    }
+
+    // A course falls in every band its age range overlaps, matching how the age filter selects courses.
+    private Map<String, Query> ageBands() {
+        Map<String, Query> bands = new LinkedHashMap<>();
+        for (int[] band : AGE_BANDS) {
+            bands.put(band[0] + "-" + band[1], ageQuery(band[0], band[1]));
+        }
+        return bands;
+    }
+
+    private static Query textQuery(SearchRequest request) {
+        if (request.getQ() == null || request.getQ().trim().isEmpty()) {
+            return null;
+        }
+        return Query.of(q -> q
+                .multiMatch(mm -> mm
+                        .query(request.getQ())
+                        .fields("title^2", "description")
+                        .fuzziness("AUTO")
+                ));
+    }
+
+    private Query dateFilter(SearchRequest request) {
+        if (request.getStartDate() == null) {
+            return nowFilters().upcoming();
+        }
+        return dateRange(request.getStartDate());
+    }
+
+    private NowFilters nowFilters() {
+        long bucket = searchClock.nowMillis();
+        NowFilters current = nowFilters;
+        if (current == null || current.bucket() != bucket) {
+            Query upcoming = dateRange(Instant.ofEpochMilli(bucket));
+            current = new NowFilters(bucket, upcoming, bool(null, List.of(upcoming)));
+            nowFilters = current;
+        }
+        return current;
+    }
+
+    private static Query dateRange(Instant from) {
+        return Query.of(q -> q
+                .range(r -> r
+                        .field("nextSessionDate")
+                        .gte(JsonData.of(from.toString()))
+                )
+        );
+    }
+
+    private static Query bool(Query must, List<Query> filters) {
+        BoolQuery.Builder boolQueryBuilder = new BoolQuery.Builder().filter(filters).mustNot(TOMBSTONE);
+        if (must != null) {
+            boolQueryBuilder.must(must);
+        }
+        return boolQueryBuilder.build()._toQuery();
+    }
+
+    private Map<Facet, Query> facetFilters(SearchRequest request) {
+        Map<Facet, Query> filters = new EnumMap<>(Facet.class);
+
+        if (request.getMinAge() != null || request.getMaxAge() != null) {
+            filters.put(Facet.AGE, ageQuery(request.getMinAge(), request.getMaxAge()));
+        }
+
+        // category and type are mapped as keyword, there is no .keyword subfield to filter on
+        if (request.getCategory() != null && !request.getCategory().trim().isEmpty()) {
+            filters.put(Facet.CATEGORY, categoryFilter(request.getCategory()));
+        }
+
+        if (request.getType() != null) {
+            filters.put(Facet.TYPE, TYPE_FILTERS.get(request.getType()));
+        }
+
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            Query priceQuery = Query.of(q -> {
+                RangeQuery.Builder rangeBuilder = new RangeQuery.Builder().field("price");
+                if (request.getMinPrice() != null) {
+                    rangeBuilder.gte(JsonData.of(request.getMinPrice()));
+                }
+                if (request.getMaxPrice() != null) {
+                    rangeBuilder.lte(JsonData.of(request.getMaxPrice()));
+                }
+                return q.range(rangeBuilder.build());
+            });
+            filters.put(Facet.PRICE, priceQuery);
+        }
+
+        return filters;
+    }
+
+    private Query categoryFilter(String category) {
+        Query cached = categoryFilters.get(category);
+        if (cached != null) {
+            return cached;
+        }
+        Query categoryQuery = termQuery("category", category);
+        if (categoryFilters.size() < MAX_CACHED_CATEGORIES) {
+            categoryFilters.putIfAbsent(category, categoryQuery);
+        }
+        return categoryQuery;
+    }
+
+    private static Query termQuery(String field, String value) {
+        return Query.of(q -> q
+                .term(t -> t
+                        .field(field)
+                        .value(value))
+        );
+    }
+
+    // Courses whose [minAge, maxAge] overlaps the requested range.
+    private Query ageQuery(Integer minAge, Integer maxAge) {
+        BoolQuery.Builder ageQueryBuilder = new BoolQuery.Builder();
+        if (minAge != null) {
+            ageQueryBuilder.filter(q -> q
+                    .range(r -> r
+                            .field("maxAge")
+                            .gte(JsonData.of(minAge))
+                    )
+            );
+        }
+        if (maxAge != null) {
+            ageQueryBuilder.filter(q -> q
+                    .range(r -> r
+                            .field("minAge")
+                            .lte(JsonData.of(maxAge))
+                    )
+            );
+        }
+        return Query.of(q -> q.bool(ageQueryBuilder.build()));
+    }
+
+    public List<SortOptions> buildSort(SearchRequest.SortOption sortOption) {
+        return SORTS.get(sortOption);
+    }
+
+    // The id tiebreaker makes the order total, which search_after needs to page without gaps or repeats.
+    private static Map<SearchRequest.SortOption, List<SortOptions>> compileSorts() {
+        Map<SearchRequest.SortOption, List<SortOptions>> sorts = new EnumMap<>(SearchRequest.SortOption.class);
+        for (SearchRequest.SortOption sortOption : SearchRequest.SortOption.values()) {
+            SortOrder order = "asc".equalsIgnoreCase(sortOption.getDirection()) ? SortOrder.Asc : SortOrder.Desc;
+            sorts.put(sortOption, List.of(
+                    SortOptions.of(s -> s
+                            .field(f -> f
+                                    .field(sortOption.getField())
+                                    .order(order))),
+                    SortOptions.of(s -> s
+                            .field(f -> f
+                                    .field("id")
+                                    .order(SortOrder.Asc)))));
+        }
+        return Collections.unmodifiableMap(sorts);
+    }
+
+    private static Map<CourseDocument.CourseType, Query> compileTypeFilters() {
+        Map<CourseDocument.CourseType, Query> filters = new EnumMap<>(CourseDocument.CourseType.class);
+        for (CourseDocument.CourseType type : CourseDocument.CourseType.values()) {
+            filters.put(type, termQuery("type", type.name()));
+        }
+        return Collections.unmodifiableMap(filters);
+    }
+
+    /**
+     * {@code _source} includes for the requested projection, or {@code null} to fetch the whole document.
+     */
+    public SourceFilter buildSourceFilter(SearchRequest request) {
+        List<String> includes = request.getFields() != null && !request.getFields().isEmpty()
+                ? request.getFields()
+                : request.getView() == null ? List.of() : request.getView().getIncludes();
+        if (includes.isEmpty()) {
+            return null;
+        }
+
+        for (String field : includes) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return new FetchSourceFilterBuilder()
+                .withIncludes(includes.toArray(String[]::new))
+                .build();
+    }
+}
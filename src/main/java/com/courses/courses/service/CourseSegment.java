@@ -0,0 +1,224 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary on-disk copy of the catalog for the embedded engine. Written once, then memory-mapped and decoded
+ * on startup, which avoids parsing JSON and is bounded by page-cache reads rather than the network.
+ * <p>
+ * Layout: magic, version, the SHA-256 of the source the segment was built from, count, then per course
+ * a presence bitmask followed by the present fields.
+ */
+public final class CourseSegment {
+
+    private static final int MAGIC = 0x43534731; // "CSG1"
+    private static final int VERSION = 2;
+    private static final int FINGERPRINT_BYTES = 32;
+
+    private static final int ID = 1;
+    private static final int TITLE = 1 << 1;
+    private static final int DESCRIPTION = 1 << 2;
+    private static final int CATEGORY = 1 << 3;
+    private static final int TYPE = 1 << 4;
+    private static final int GRADE_RANGE = 1 << 5;
+    private static final int MIN_AGE = 1 << 6;
+    private static final int MAX_AGE = 1 << 7;
+    private static final int PRICE = 1 << 8;
+    private static final int NEXT_SESSION_DATE = 1 << 9;
+
+    private CourseSegment() {
+    }
+
+    /**
+     * Writes to a temporary file next to {@code path} and moves it into place, so readers never see a partial segment.
+     */
+    public static void write(Path path, List<CourseDocument> courses, byte[] sourceFingerprint) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (OutputStream file = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(sourceFingerprint);
+            out.writeInt(courses.size());
+            for (CourseDocument course : courses) {
+                writeCourse(out, course);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException also when the segment was built from a source other than the one fingerprinted
+     */
+    public static List<CourseDocument> read(Path path, byte[] sourceFingerprint) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a course segment: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported course segment version " + version + ": " + path);
+            }
+            byte[] builtFrom = new byte[FINGERPRINT_BYTES];
+            buffer.get(builtFrom);
+            if (!MessageDigest.isEqual(builtFrom, sourceFingerprint)) {
+                throw new IOException("Course segment was built from a different source: " + path);
+            }
+
+            int count = buffer.getInt();
+            List<CourseDocument> courses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                courses.add(readCourse(buffer));
+            }
+            return courses;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or corrupt course segment: " + path, e);
+        }
+    }
+
+    /**
+     * SHA-256 of the catalog source, stored in the segment header to detect a segment that is out of date.
+     */
+    public static byte[] fingerprint(InputStream source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int n;
+        while ((n = source.read(buffer)) > 0) {
+            digest.update(buffer, 0, n);
+        }
+        return digest.digest();
+    }
+
+    private static void writeCourse(DataOutputStream out, CourseDocument course) throws IOException {
+        int present = (course.getId() != null ? ID : 0)
+                | (course.getTitle() != null ? TITLE : 0)
+                | (course.getDescription() != null ? DESCRIPTION : 0)
+                | (course.getCategory() != null ? CATEGORY : 0)
+                | (course.getType() != null ? TYPE : 0)
+                | (course.getGradeRange() != null ? GRADE_RANGE : 0)
+                | (course.getMinAge() != null ? MIN_AGE : 0)
+                | (course.getMaxAge() != null ? MAX_AGE : 0)
+                | (course.getPrice() != null ? PRICE : 0)
+                | (course.getNextSessionDate() != null ? NEXT_SESSION_DATE : 0);
+        out.writeShort(present);
+
+        if ((present & ID) != 0) {
+            writeString(out, course.getId());
+        }
+        if ((present & TITLE) != 0) {
+            writeString(out, course.getTitle());
+        }
+        if ((present & DESCRIPTION) != 0) {
+            writeString(out, course.getDescription());
+        }
+        if ((present & CATEGORY) != 0) {
+            writeString(out, course.getCategory());
+        }
+        if ((present & TYPE) != 0) {
+            out.writeByte(course.getType().ordinal());
+        }
+        if ((present & GRADE_RANGE) != 0) {
+            writeString(out, course.getGradeRange());
+        }
+        if ((present & MIN_AGE) != 0) {
+            out.writeInt(course.getMinAge());
+        }
+        if ((present & MAX_AGE) != 0) {
+            out.writeInt(course.getMaxAge());
+        }
+        if ((present & PRICE) != 0) {
+            out.writeLong(course.getPrice().unscaledValue().longValueExact());
+            out.writeInt(course.getPrice().scale());
+        }
+        if ((present & NEXT_SESSION_DATE) != 0) {
+            out.writeLong(course.getNextSessionDate().toEpochMilli());
+        }
+    }
+
+    private static CourseDocument readCourse(ByteBuffer buffer) {
+        int present = buffer.getShort() & 0xFFFF;
+        CourseDocument course = new CourseDocument();
+
+        if ((present & ID) != 0) {
+            course.setId(readString(buffer));
+        }
+        if ((present & TITLE) != 0) {
+            course.setTitle(readString(buffer));
+        }
+        if ((present & DESCRIPTION) != 0) {
+            course.setDescription(readString(buffer));
+        }
+        if ((present & CATEGORY) != 0) {
+            course.setCategory(readString(buffer));
+        }
+        if ((present & TYPE) != 0) {
+            course.setType(CourseDocument.CourseType.values()[buffer.get()]);
+        }
+        if ((present & GRADE_RANGE) != 0) {
+            course.setGradeRange(readString(buffer));
+        }
+        if ((present & MIN_AGE) != 0) {
+            course.setMinAge(buffer.getInt());
+        }
+        if ((present & MAX_AGE) != 0) {
+            course.setMaxAge(buffer.getInt());
+        }
+        if ((present & PRICE) != 0) {
+            long unscaled = buffer.getLong();
+            course.setPrice(BigDecimal.valueOf(unscaled, buffer.getInt()));
+        }
+        if ((present & NEXT_SESSION_DATE) != 0) {
+            course.setNextSessionDate(Instant.ofEpochMilli(buffer.getLong()));
+        }
+        course.setTitleSuggest(course.getTitle());
+        return course;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,393 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.json.JsonData;
+import com.courses.courses.document.CourseDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Buffers single-course upserts, partial updates and deletes, coalescing changes to the same course,
+ * and writes them to the live index as one {@code _bulk} request when the buffer fills up or every
+ * {@code flush-interval}. Each change carries a source version; a scripted update applies it only if it is
+ * newer than the version stored on the document, so late or replayed changes are dropped.
+ * <p>
+ * A delete leaves a tombstone ({@code deleted: true} plus the version) rather than removing the document, so an
+ * older upsert arriving after it can't bring the course back. Searches filter tombstones out; a reindex drops them.
+ * <p>
+ * While a new index is being loaded, flushed changes are also recorded and replayed into it right before the
+ * alias moves, so they are not lost with the old index.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class CourseWriteBuffer {
+
+    public static final Set<String> UPDATABLE_FIELDS = Set.of(
+            "title", "description", "category", "type", "gradeRange",
+            "minAge", "maxAge", "price", "nextSessionDate");
+
+    private static final String APPLY_CHANGE_SCRIPT = """
+            if (ctx._source.sourceVersion != null && ctx._source.sourceVersion >= params.version) {
+              ctx.op = 'none';
+            } else if (params.delete) {
+              ctx._source.clear();
+              ctx._source.deleted = true;
+              ctx._source.sourceVersion = params.version;
+            } else if (ctx._source.deleted == true && !params.replace) {
+              ctx.op = 'none';
+            } else {
+              if (params.replace) {
+                ctx._source.clear();
+              }
+              ctx._source.putAll(params.fields);
+              ctx._source.sourceVersion = params.version;
+              if (params.fields.containsKey('title')) {
+                ctx._source.titleSuggest = params.fields.title;
+              }
+            }
+            """;
+
+    // Item statuses worth another try: conflicts left after retry_on_conflict, rejections and unavailable shards.
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(409, 429, 503);
+
+    enum Kind {
+        UPSERT, PATCH, DELETE
+    }
+
+    record PendingWrite(Kind kind, long version, Map<String, Object> fields, int attempts) {
+
+        PendingWrite(Kind kind, long version, Map<String, Object> fields) {
+            this(kind, version, fields, 0);
+        }
+
+        PendingWrite retried() {
+            return new PendingWrite(kind, version, fields, attempts + 1);
+        }
+    }
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchConverter converter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBuffered;
+    private final int maxRetained;
+    private final int maxRetries;
+
+    private final Object flushMonitor = new Object();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "course-write-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    private Map<String, PendingWrite> pending = new LinkedHashMap<>();
+
+    // Guarded by flushMonitor; null unless a new index is being loaded.
+    private Map<String, PendingWrite> recorded;
+
+    private final Counter applied;
+    private final Counter ignored;
+    private final Counter failed;
+    private final Counter retried;
+
+    public CourseWriteBuffer(ElasticsearchClient elasticsearchClient, ElasticsearchOperations elasticsearchOperations,
+                             ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                             @Value("${courses.cdc.max-buffered:1000}") int maxBuffered,
+                             @Value("${courses.cdc.max-retries:5}") int maxRetries) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.converter = elasticsearchOperations.getElasticsearchConverter();
+        this.eventPublisher = eventPublisher;
+        this.maxBuffered = maxBuffered;
+        // Room for changes that keep arriving while Elasticsearch is unreachable before callers are pushed back.
+        this.maxRetained = maxBuffered * 10;
+        this.maxRetries = maxRetries;
+        this.applied = changeCounter(meterRegistry, "applied");
+        this.ignored = changeCounter(meterRegistry, "ignored");
+        this.failed = changeCounter(meterRegistry, "failed");
+        this.retried = changeCounter(meterRegistry, "retried");
+    }
+
+    /**
+     * Replaces the whole course, creating it if it does not exist.
+     *
+     * @return {@code false} when a change with the same or a newer version is already buffered
+     */
+    public boolean upsert(String id, CourseDocument course, long version) {
+        course.setId(id);
+        course.setTitleSuggest(course.getTitle());
+        course.setSourceVersion(null);
+        Map<String, Object> fields = new LinkedHashMap<>(converter.mapObject(course));
+        return enqueue(id, new PendingWrite(Kind.UPSERT, version, fields));
+    }
+
+    /**
+     * Overwrites only {@code fieldNames} of an existing course; the values come from {@code changes}.
+     */
+    public boolean patch(String id, CourseDocument changes, Set<String> fieldNames, long version) {
+        for (String field : fieldNames) {
+            if (!UPDATABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field can't be updated: " + field);
+            }
+        }
+        if (fieldNames.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        Map<String, Object> mapped = converter.mapObject(changes);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String field : fieldNames) {
+            fields.put(field, mapped.get(field));
+        }
+        return enqueue(id, new PendingWrite(Kind.PATCH, version, fields));
+    }
+
+    public boolean delete(String id, long version) {
+        return enqueue(id, new PendingWrite(Kind.DELETE, version, Map.of()));
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    private boolean enqueue(String id, PendingWrite change) {
+        int size;
+        synchronized (this) {
+            PendingWrite merged = merge(pending.get(id), change);
+            if (merged == null) {
+                return false;
+            }
+            if (!pending.containsKey(id) && pending.size() >= maxRetained) {
+                throw new RejectedExecutionException("Write buffer is full");
+            }
+            pending.put(id, merged);
+            size = pending.size();
+        }
+
+        if (size >= maxBuffered && flushQueued.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+        return true;
+    }
+
+    // A partial update on top of a buffered upsert or patch folds into it; anything else replaces it.
+    static PendingWrite merge(PendingWrite buffered, PendingWrite incoming) {
+        if (buffered == null) {
+            return incoming;
+        }
+        if (incoming.version() <= buffered.version()) {
+            return null;
+        }
+        if (incoming.kind() != Kind.PATCH) {
+            return incoming;
+        }
+        if (buffered.kind() == Kind.DELETE) {
+            return null;
+        }
+        Map<String, Object> fields = new LinkedHashMap<>(buffered.fields());
+        fields.putAll(incoming.fields());
+        return new PendingWrite(buffered.kind(), incoming.version(), fields);
+    }
+
+    @Scheduled(fixedDelayString = "${courses.cdc.flush-interval:1s}")
+    public void flush() {
+        synchronized (flushMonitor) {
+            Map<String, PendingWrite> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            List<BulkOperation> operations = new ArrayList<>(batch.size());
+            batch.forEach((id, change) -> operations.add(toOperation(CourseDocument.INDEX_NAME, id, change)));
+
+            BulkResponse response;
+            try {
+                response = bulk(operations);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Flushing {} course changes failed, keeping them buffered: {}", batch.size(), e.getMessage());
+                requeue(batch);
+                return;
+            }
+
+            Set<String> changed = new HashSet<>();
+            Map<String, PendingWrite> retryable = new LinkedHashMap<>();
+            for (BulkResponseItem item : response.items()) {
+                PendingWrite change = batch.get(item.id());
+                if (item.error() == null) {
+                    if ("noop".equals(item.result())) {
+                        ignored.increment();
+                    } else {
+                        applied.increment();
+                        changed.add(item.id());
+                    }
+                } else if (item.status() == 404) {
+                    // Partial update of a course that does not exist.
+                    ignored.increment();
+                } else if (RETRYABLE_STATUSES.contains(item.status()) && change != null
+                        && change.attempts() < maxRetries) {
+                    // Picked up again by the next flush, which spaces the attempts out.
+                    retried.increment();
+                    retryable.put(item.id(), change.retried());
+                } else {
+                    failed.increment();
+                    log.warn("Course change {} failed: {}", item.id(), item.error().reason());
+                }
+            }
+
+            if (!retryable.isEmpty()) {
+                requeue(retryable);
+            }
+            if (recorded != null) {
+                batch.forEach((id, change) -> {
+                    if (!retryable.containsKey(id)) {
+                        PendingWrite merged = merge(recorded.get(id), change);
+                        if (merged != null) {
+                            recorded.put(id, merged);
+                        }
+                    }
+                });
+            }
+            if (!changed.isEmpty()) {
+                eventPublisher.publishEvent(new CourseDocumentsChangedEvent(changed));
+            }
+        }
+    }
+
+    /**
+     * Starts recording the changes flushed to the live index, to be replayed into a new index with
+     * {@link #replayInto} before it replaces the live one.
+     */
+    public void startRecording() {
+        synchronized (flushMonitor) {
+            recorded = new LinkedHashMap<>();
+        }
+    }
+
+    public void stopRecording() {
+        synchronized (flushMonitor) {
+            recorded = null;
+        }
+    }
+
+    /**
+     * Applies the changes recorded since {@link #startRecording} to {@code indexName} and then runs {@code swap}.
+     * Flushes are held back meanwhile, so no change reaches the old index after the replay. Recording stops
+     * either way.
+     */
+    public void replayInto(String indexName, Runnable swap) throws IOException {
+        synchronized (flushMonitor) {
+            try {
+                List<Map.Entry<String, PendingWrite>> changes = recorded != null
+                        ? new ArrayList<>(recorded.entrySet())
+                        : List.of();
+                for (int from = 0; from < changes.size(); from += maxBuffered) {
+                    List<BulkOperation> operations = changes.subList(from, Math.min(from + maxBuffered, changes.size()))
+                            .stream()
+                            .map(change -> toOperation(indexName, change.getKey(), change.getValue()))
+                            .toList();
+                    for (BulkResponseItem item : bulk(operations).items()) {
+                        if (item.error() != null && item.status() != 404) {
+                            failed.increment();
+                            log.warn("Replaying course change {} into {} failed: {}", item.id(), indexName,
+                                    item.error().reason());
+                        }
+                    }
+                }
+                if (!changes.isEmpty()) {
+                    log.info("Replayed {} course changes into {}", changes.size(), indexName);
+                }
+                swap.run();
+            } finally {
+                recorded = null;
+            }
+        }
+    }
+
+    private BulkResponse bulk(List<BulkOperation> operations) throws IOException {
+        return elasticsearchClient.bulk(b -> b
+                .operations(operations)
+                .refresh(Refresh.WaitFor));
+    }
+
+    private void requeue(Map<String, PendingWrite> batch) {
+        synchronized (this) {
+            batch.forEach((id, change) -> {
+                PendingWrite newer = pending.get(id);
+                if (newer == null) {
+                    pending.put(id, change);
+                } else {
+                    // null means the failed change supersedes whatever arrived since.
+                    PendingWrite merged = merge(change, newer);
+                    pending.put(id, merged != null ? merged : change);
+                }
+            });
+        }
+    }
+
+    private BulkOperation toOperation(String indexName, String id, PendingWrite change) {
+        Map<String, JsonData> params = Map.of(
+                "version", JsonData.of(change.version()),
+                "delete", JsonData.of(change.kind() == Kind.DELETE),
+                "replace", JsonData.of(change.kind() == Kind.UPSERT),
+                "fields", JsonData.of(change.fields()));
+
+        return BulkOperation.of(op -> op.update(u -> {
+            u.index(indexName)
+                    .id(id)
+                    .retryOnConflict(3);
+            return u.action(a -> {
+                a.script(s -> s.inline(i -> i.lang("painless").source(APPLY_CHANGE_SCRIPT).params(params)));
+                // A patch never creates the course; an upsert does, and a delete creates its tombstone.
+                if (change.kind() != Kind.PATCH) {
+                    a.scriptedUpsert(true).upsert(Map.of());
+                }
+                return a;
+            });
+        }));
+    }
+
+    private static Counter changeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("courses.cdc.changes")
+                .description("Buffered course changes by outcome after flushing")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        flush();
+    }
+}
@@ -1,94 +1,258 @@
 package com.courses.courses.service;
 import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.ImportProgress;
+import com.courses.courses.dto.IngestionReport;
 import com.courses.courses.repository.CourseRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.IndexOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Service
+@Profile("!embedded")
 public class DataIndexingService {
 
     private final CourseRepository courseRepository;
-    private final ElasticsearchOperations elasticsearchOperations;
+    private final CourseIndexManager courseIndexManager;
+    private final SearchWarmer searchWarmer;
+    private final CourseWriteBuffer courseWriteBuffer;
+    private final BulkIngestionService bulkIngestionService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
+    private final Path importRoot;
+    private final Path checkpointPath;
+    private final int importParallelism;
+    private final long maxFailedDocuments;
+    private final AtomicBoolean reindexInProgress = new AtomicBoolean();
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "course-import");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    public DataIndexingService(CourseRepository courseRepository, ElasticsearchOperations elasticsearchOperations, ObjectMapper objectMapper) {
+    private volatile ImportJob currentImport;
+
+    public DataIndexingService(CourseRepository courseRepository, CourseIndexManager courseIndexManager,
+                               SearchWarmer searchWarmer, CourseWriteBuffer courseWriteBuffer,
+                               BulkIngestionService bulkIngestionService, ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper,
+                               @Value("${courses.import.root:data/import}") Path importRoot,
+                               @Value("${courses.import.checkpoint-path:data/import-checkpoint.json}") Path checkpointPath,
+                               @Value("${courses.import.parallelism:4}") int importParallelism,
+                               @Value("${courses.index.max-failed-documents:0}") long maxFailedDocuments) {
         this.courseRepository = courseRepository;
-        this.elasticsearchOperations = elasticsearchOperations;
+        this.courseIndexManager = courseIndexManager;
+        this.searchWarmer = searchWarmer;
+        this.courseWriteBuffer = courseWriteBuffer;
+        this.bulkIngestionService = bulkIngestionService;
+        this.eventPublisher = eventPublisher;
         this.objectMapper = objectMapper;
+        this.importRoot = importRoot.toAbsolutePath().normalize();
+        this.checkpointPath = checkpointPath;
+        this.importParallelism = importParallelism;
+        this.maxFailedDocuments = maxFailedDocuments;
     }
 
 
+    // Runs before Boot marks the app ready, so readiness is only reported once the live index is warm.
     @EventListener(ApplicationReadyEvent.class)
     public void indexSampleData() {
         try {
 
-            createIndexIfNotExists();
+            courseIndexManager.putIndexTemplate();
 
-            Long existingCount = courseRepository.count();
-            if (existingCount > 0) {
-                return;
+            if (courseIndexManager.aliasExists() && courseRepository.count() > 0) {
+                List<String> mismatches = courseIndexManager.validateMapping();
+                if (mismatches.isEmpty()) {
+                    searchWarmer.warmUp(CourseDocument.INDEX_NAME);
+                    return;
+                }
+                // The sample data can always be reloaded, so an outdated index is rebuilt from the template.
+                log.warn("Live mapping differs from {}, reindexing: {}", CourseDocument.MAPPING_PATH, mismatches);
             }
 
-            List<CourseDocument> courses = loadSampleCourses();
-
-            courses.forEach(course -> course.setTitleSuggest(course.getTitle()));
-
-            Iterable<CourseDocument> savedCourses = courseRepository.saveAll(courses);
-            Long savedCount = courseRepository.count();
-
+            reindexData();
 
         } catch (Exception e) {
             throw new RuntimeException("Data indexing failed", e);
         }
     }
 
-    private void createIndexIfNotExists() {
-        IndexOperations indexOps = elasticsearchOperations.indexOps(CourseDocument.class);
-
-        if (!indexOps.exists()) {
-            indexOps.create();
-            indexOps.putMapping();
-        } else {
-        }
-    }
-
-    private List<CourseDocument> loadSampleCourses() throws IOException {
+    private IngestionReport loadSampleCourses(String indexName) throws IOException {
         ClassPathResource resource = new ClassPathResource("sample-courses.json");
         try (InputStream inputStream = resource.getInputStream()) {
-            return objectMapper.readValue(inputStream, new TypeReference<List<CourseDocument>>() {});
+            return bulkIngestionService.ingest(inputStream, indexName);
         }
     }
 
+    /**
+     * Loads a fresh versioned index next to the live one and flips the alias once it is ready,
+     * so searches keep hitting the old index until the switch. If more than {@code max-failed-documents}
+     * documents fail, the new index is dropped and the alias stays where it is.
+     */
     public void reindexData() {
+        if (!reindexInProgress.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reindex is already in progress");
+        }
+
+        String indexName = null;
+        try {
+            indexName = courseIndexManager.createVersionedIndex();
+            courseWriteBuffer.startRecording();
+            IngestionReport report = loadSampleCourses(indexName);
+            if (report.getFailed() > maxFailedDocuments) {
+                throw new IllegalStateException(report.getFailed() + " documents failed to index, more than the "
+                        + maxFailedDocuments + " allowed: " + report.getFailures());
+            }
+            if (report.getFailed() > 0) {
+                log.warn("Reindex finished with {} failed documents: {}", report.getFailed(), report.getFailures());
+            }
 
-        IndexOperations indexOps = elasticsearchOperations.indexOps(CourseDocument.class);
-        if (indexOps.exists()) {
-            indexOps.delete();
+            courseIndexManager.finishLoading(indexName);
+            searchWarmer.warmUp(indexName);
+            String loaded = indexName;
+            courseWriteBuffer.replayInto(indexName, () -> courseIndexManager.swapAlias(loaded));
+            eventPublisher.publishEvent(new CourseIndexChangedEvent(indexName, "reindex"));
+
+        } catch (IOException | RuntimeException e) {
+            RuntimeException failure = new RuntimeException("Reindexing failed", e);
+            if (indexName != null) {
+                try {
+                    courseIndexManager.deleteIndex(indexName);
+                } catch (RuntimeException cleanupFailure) {
+                    failure.addSuppressed(cleanupFailure);
+                }
+            }
+            throw failure;
+        } finally {
+            courseWriteBuffer.stopRecording();
+            reindexInProgress.set(false);
         }
+    }
 
-        createIndexIfNotExists();
+    /**
+     * Starts importing every JSON / NDJSON file in {@code directory} in the background, into a new versioned
+     * index that replaces the live one when all files are in. {@code directory} is resolved against
+     * {@code courses.import.root} and may not leave it. If a checkpoint left by an interrupted import of the
+     * same directory exists, its index is reused and the files it lists are skipped.
+     */
+    public ImportProgress startImport(String directory) {
+        Path dir = resolveImportDirectory(directory);
+        if (!reindexInProgress.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reindex is already in progress");
+        }
 
         try {
-            List<CourseDocument> courses = loadSampleCourses();
+            ImportCheckpoint checkpoint = resumableCheckpoint(dir);
+            if (checkpoint == null) {
+                checkpoint = new ImportCheckpoint(dir.toString(), courseIndexManager.createVersionedIndex(), Set.of());
+                checkpoint.save(checkpointPath, objectMapper);
+            }
+            courseWriteBuffer.startRecording();
+            ImportJob job = new ImportJob(dir, checkpoint, bulkIngestionService, objectMapper, checkpointPath,
+                    importParallelism);
+            currentImport = job;
+            importExecutor.execute(() -> runImport(job));
+            return job.progress();
+        } catch (IOException | RuntimeException e) {
+            courseWriteBuffer.stopRecording();
+            reindexInProgress.set(false);
+            throw new RuntimeException("Starting import failed", e);
+        }
+    }
 
-            courses.forEach(course -> course.setTitleSuggest(course.getTitle()));
+    private Path resolveImportDirectory(String directory) {
+        Path requested = Path.of(directory);
+        if (requested.isAbsolute()) {
+            throw new IllegalArgumentException("Import directory must be relative to courses.import.root: " + directory);
+        }
+        Path dir = importRoot.resolve(requested).normalize();
+        if (!dir.startsWith(importRoot)) {
+            throw new IllegalArgumentException("Import directory is outside courses.import.root: " + directory);
+        }
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        // A symlink inside the root could still point out of it.
+        try {
+            if (!dir.toRealPath().startsWith(importRoot.toRealPath())) {
+                throw new IllegalArgumentException("Import directory is outside courses.import.root: " + directory);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read import directory: " + directory, e);
+        }
+        return dir;
+    }
 
-            courseRepository.saveAll(courses);
+    /**
+     * Progress of the running or most recent import, or {@code null} if none was started.
+     */
+    public ImportProgress importProgress() {
+        ImportJob job = currentImport;
+        return job != null ? job.progress() : null;
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Reindexing failed", e);
+    private void runImport(ImportJob job) {
+        String indexName = job.getIndexName();
+        ImportJob.State outcome = ImportJob.State.FAILED;
+        try {
+            if (!job.run()) {
+                // Index and checkpoint stay, so importing the directory again only redoes the failed files.
+                log.warn("Import into {} incomplete, alias not switched: {}", indexName, job.progress().getErrors());
+                return;
+            }
+
+            courseIndexManager.finishLoading(indexName);
+            searchWarmer.warmUp(indexName);
+            courseWriteBuffer.replayInto(indexName, () -> courseIndexManager.swapAlias(indexName));
+            Files.deleteIfExists(checkpointPath);
+            eventPublisher.publishEvent(new CourseIndexChangedEvent(indexName, "import"));
+            outcome = ImportJob.State.COMPLETED;
+
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            log.error("Import into {} failed", indexName, e);
+            job.recordError(e.getMessage());
+        } finally {
+            // Released before the outcome is visible, so whoever sees it can start the next reindex.
+            courseWriteBuffer.stopRecording();
+            reindexInProgress.set(false);
+            job.finish(outcome);
+        }
+    }
+
+    private ImportCheckpoint resumableCheckpoint(Path directory) throws IOException {
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(checkpointPath, objectMapper);
+        if (checkpoint == null) {
+            return null;
+        }
+
+        boolean indexExists = courseIndexManager.indexExists(checkpoint.index());
+        if (directory.toString().equals(checkpoint.directory()) && indexExists) {
+            log.info("Resuming import of {} into {}, {} files already done",
+                    directory, checkpoint.index(), checkpoint.completedFiles().size());
+            return checkpoint;
+        }
+
+        log.info("Discarding import checkpoint for {} ({})", checkpoint.directory(), checkpoint.index());
+        if (indexExists && !courseIndexManager.currentIndices().contains(checkpoint.index())) {
+            courseIndexManager.deleteIndex(checkpoint.index());
         }
+        return null;
     }
-}
\ No newline at end of file
+}
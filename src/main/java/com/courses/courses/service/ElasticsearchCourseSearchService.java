@@ -0,0 +1,699 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.*;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.RequestItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.BatchSearchResult;
+import com.courses.courses.dto.FacetBucket;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Service
+@Profile("!embedded")
+public class ElasticsearchCourseSearchService implements CourseSearchService {
+
+    private static final String CURSOR_IN_BATCH = "Cursor pagination is not available in batch searches";
+    private static final String SUGGEST_TITLE_FIELD = "title.keyword";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    private final SearchResultCache searchResultCache;
+    private final SuggestionEngine suggestionEngine;
+    private final CourseQueryBuilder courseQueryBuilder;
+    private final SearchMetrics searchMetrics;
+    private final SearchCircuitBreaker searchCircuitBreaker;
+    private final LocalSearchEngine localSearchEngine;
+    private final SearchConcurrencyLimiter concurrencyLimiter;
+    private final MaterializedSearchResults materializedResults;
+    private final SearchWarmer searchWarmer;
+    private final SearchBatcher searchBatcher; // null unless micro-batching is enabled
+    private final Duration cursorKeepAlive;
+    private final PointInTimeTracker pointsInTime;
+
+    @Value("${courses.search.request-cache:true}")
+    private boolean requestCache;
+
+    @Value("${courses.suggest.size:10}")
+    private int suggestSize;
+
+    public ElasticsearchCourseSearchService(ElasticsearchOperations elasticsearchOperations, ElasticsearchClient elasticsearchClient,
+                               ElasticsearchAsyncClient elasticsearchAsyncClient,
+                               SearchResultCache searchResultCache, SuggestionEngine suggestionEngine,
+                               CourseQueryBuilder courseQueryBuilder, SearchMetrics searchMetrics,
+                               SearchCircuitBreaker searchCircuitBreaker, LocalSearchEngine localSearchEngine,
+                               SearchConcurrencyLimiter concurrencyLimiter,
+                               MaterializedSearchResults materializedResults, SearchWarmer searchWarmer,
+                               @Value("${courses.search.micro-batch.enabled:false}") boolean microBatching,
+                               @Value("${courses.search.micro-batch.window:2ms}") Duration microBatchWindow,
+                               @Value("${courses.search.micro-batch.max-size:20}") int microBatchMaxSize,
+                               @Value("${courses.search.micro-batch.max-in-flight:8}") int microBatchMaxInFlight,
+                               @Value("${courses.search.micro-batch.max-queued:1000}") int microBatchMaxQueued,
+                               @Value("${courses.search.cursor.keep-alive:1m}") Duration cursorKeepAlive,
+                               @Value("${courses.search.cursor.max-open:100}") int maxOpenCursors) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchAsyncClient = elasticsearchAsyncClient;
+        this.searchResultCache = searchResultCache;
+        this.suggestionEngine = suggestionEngine;
+        this.courseQueryBuilder = courseQueryBuilder;
+        this.searchMetrics = searchMetrics;
+        this.searchCircuitBreaker = searchCircuitBreaker;
+        this.localSearchEngine = localSearchEngine;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.materializedResults = materializedResults;
+        this.searchWarmer = searchWarmer;
+        this.searchBatcher = microBatching
+                ? new SearchBatcher(this::executeBatch, microBatchWindow, microBatchMaxSize, microBatchMaxInFlight,
+                        microBatchMaxQueued)
+                : null;
+        this.cursorKeepAlive = cursorKeepAlive;
+        this.pointsInTime = new PointInTimeTracker(maxOpenCursors, cursorKeepAlive);
+    }
+
+    @Override
+    public SearchResponse searchCourses(SearchRequest request) {
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            // The local engine can't continue a point-in-time, so there is nothing to fall back to.
+            return searchCircuitBreaker.call(() -> searchWithCursor(request), () -> null);
+        }
+        SearchResponse response = materializedResults.find(request);
+        if (response == null) {
+            response = searchCircuitBreaker.call(
+                    () -> searchResultCache.get(request, searchBatcher != null ? this::searchInBatch : this::executeSearch),
+                    () -> localSearchEngine.search(request));
+        }
+        // Only searches that were answered are worth replaying; a rejected one would fail on every warm-up.
+        searchWarmer.record(request);
+        return response;
+    }
+
+    // Cursor pages stay blocking: opening and closing a point-in-time has no async form here.
+    @Override
+    public CompletableFuture<SearchResponse> searchCoursesAsync(SearchRequest request) {
+        if (hasCursor(request)) {
+            return CompletableFuture.completedFuture(searchCourses(request));
+        }
+        SearchResponse materialized = materializedResults.find(request);
+        CompletableFuture<SearchResponse> response = materialized != null
+                ? CompletableFuture.completedFuture(materialized)
+                : searchCircuitBreaker.callAsync(
+                        () -> searchResultCache.getAsync(request,
+                                searchBatcher != null ? this::searchInBatchAsync : this::executeSearchAsync),
+                        () -> localSearchEngine.search(request));
+        return response.thenApply(answered -> {
+            searchWarmer.record(request);
+            return answered;
+        });
+    }
+
+    @Override
+    public List<BatchSearchResult> searchBatch(List<SearchRequest> requests) {
+        return searchCircuitBreaker.call(
+                () -> cachedBatch(requests),
+                () -> localBatch(requests));
+    }
+
+    @Override
+    public CompletableFuture<List<BatchSearchResult>> searchBatchAsync(List<SearchRequest> requests) {
+        return searchCircuitBreaker.callAsync(
+                () -> cachedBatchAsync(requests),
+                () -> localBatch(requests));
+    }
+
+    private List<BatchSearchResult> cachedBatch(List<SearchRequest> requests) {
+        Map<SearchRequest, BatchSearchResult> failures = new IdentityHashMap<>();
+        List<SearchResponse> responses = searchResultCache.getAll(requests,
+                misses -> toCacheable(misses, executeBatch(misses), failures));
+        return toBatchResults(requests, responses, failures);
+    }
+
+    private CompletableFuture<List<BatchSearchResult>> cachedBatchAsync(List<SearchRequest> requests) {
+        Map<SearchRequest, BatchSearchResult> failures = new IdentityHashMap<>();
+        return searchResultCache.getAllAsync(requests,
+                        misses -> executeBatchAsync(misses).thenApply(results -> toCacheable(misses, results, failures)))
+                .thenApply(responses -> toBatchResults(requests, responses, failures));
+    }
+
+    // Failed entries load as null, so they aren't cached, and are kept aside to be reported in place.
+    private static List<SearchResponse> toCacheable(List<SearchRequest> misses, List<BatchSearchResult> results,
+                                                    Map<SearchRequest, BatchSearchResult> failures) {
+        List<SearchResponse> loaded = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).getResponse() == null) {
+                failures.put(misses.get(i), results.get(i));
+            }
+            loaded.add(results.get(i).getResponse());
+        }
+        return loaded;
+    }
+
+    private static List<BatchSearchResult> toBatchResults(List<SearchRequest> requests, List<SearchResponse> responses,
+                                                          Map<SearchRequest, BatchSearchResult> failures) {
+        List<BatchSearchResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            SearchResponse response = responses.get(i);
+            results.add(response != null ? new BatchSearchResult(response) : failures.get(requests.get(i)));
+        }
+        return results;
+    }
+
+    private List<BatchSearchResult> localBatch(List<SearchRequest> requests) {
+        List<BatchSearchResult> results = new ArrayList<>(requests.size());
+        for (SearchRequest request : requests) {
+            if (hasCursor(request)) {
+                results.add(new BatchSearchResult(400, CURSOR_IN_BATCH));
+                continue;
+            }
+            SearchResponse response = localSearchEngine.search(request);
+            results.add(response != null
+                    ? new BatchSearchResult(response)
+                    : new BatchSearchResult(503, "Search backend unavailable"));
+        }
+        return results;
+    }
+
+    /**
+     * Runs all requests in one {@code _msearch} round-trip. A request that can't be built, or that fails in
+     * Elasticsearch, fails on its own; only a transport failure fails the whole batch.
+     */
+    private List<BatchSearchResult> executeBatch(List<SearchRequest> requests) {
+        PreparedBatch batch = prepareBatch(requests);
+        if (batch.items().isEmpty()) {
+            return Arrays.asList(batch.results());
+        }
+
+        long start = System.nanoTime();
+        MsearchResponse<CourseDocument> response;
+        try {
+            response = concurrencyLimiter.call(() -> msearch(batch.items()));
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Batch search failed", e.getCause());
+        }
+        searchMetrics.record("batch", SearchMetrics.STAGE_ES_ROUND_TRIP, null, System.nanoTime() - start);
+        return completeBatch(batch, requests, response);
+    }
+
+    private CompletableFuture<List<BatchSearchResult>> executeBatchAsync(List<SearchRequest> requests) {
+        PreparedBatch batch = prepareBatch(requests);
+        if (batch.items().isEmpty()) {
+            return CompletableFuture.completedFuture(Arrays.asList(batch.results()));
+        }
+
+        long start = System.nanoTime();
+        return concurrencyLimiter.callAsync(() -> msearchAsync(batch.items()))
+                .thenApply(response -> {
+                    searchMetrics.record("batch", SearchMetrics.STAGE_ES_ROUND_TRIP, null, System.nanoTime() - start);
+                    return completeBatch(batch, requests, response);
+                });
+    }
+
+    private PreparedBatch prepareBatch(List<SearchRequest> requests) {
+        BatchSearchResult[] results = new BatchSearchResult[requests.size()];
+        List<RequestItem> items = new ArrayList<>(requests.size());
+        List<Integer> sent = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            SearchRequest request = requests.get(i);
+            if (hasCursor(request)) {
+                results[i] = new BatchSearchResult(400, CURSOR_IN_BATCH);
+                continue;
+            }
+            try {
+                items.add(toRequestItem(request));
+                sent.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = new BatchSearchResult(400, e.getMessage());
+            }
+        }
+        return new PreparedBatch(results, items, sent);
+    }
+
+    private List<BatchSearchResult> completeBatch(PreparedBatch batch, List<SearchRequest> requests,
+                                                  MsearchResponse<CourseDocument> response) {
+        BatchSearchResult[] results = batch.results();
+        List<MultiSearchResponseItem<CourseDocument>> responses = response.responses();
+        for (int j = 0; j < responses.size(); j++) {
+            int i = batch.sent().get(j);
+            MultiSearchResponseItem<CourseDocument> item = responses.get(j);
+            results[i] = item.isResult()
+                    ? new BatchSearchResult(toResponse(item.result(), requests.get(i)))
+                    : new BatchSearchResult(item.failure().status(), item.failure().error().reason());
+        }
+        return Arrays.asList(results);
+    }
+
+    // Entries that failed before the round-trip already have their result; sent maps responses back to them.
+    private record PreparedBatch(BatchSearchResult[] results, List<RequestItem> items, List<Integer> sent) {
+    }
+
+    private MsearchResponse<CourseDocument> msearch(List<RequestItem> items) {
+        try {
+            return elasticsearchClient.msearch(m -> m
+                    .index(CourseDocument.INDEX_NAME)
+                    .searches(items), CourseDocument.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CompletableFuture<MsearchResponse<CourseDocument>> msearchAsync(List<RequestItem> items) {
+        return elasticsearchAsyncClient.msearch(m -> m
+                .index(CourseDocument.INDEX_NAME)
+                .searches(items), CourseDocument.class);
+    }
+
+    // Joins the next micro-batch and turns its entry back into what a single search would have thrown.
+    private SearchResponse searchInBatch(SearchRequest request) {
+        BatchSearchResult result;
+        try {
+            result = searchBatcher.submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return toSearchResponse(result);
+    }
+
+    private CompletableFuture<SearchResponse> searchInBatchAsync(SearchRequest request) {
+        return searchBatcher.submit(request).thenApply(this::toSearchResponse);
+    }
+
+    private SearchResponse toSearchResponse(BatchSearchResult result) {
+        if (result.getResponse() != null) {
+            return result.getResponse();
+        }
+        if (result.getStatus() == 400) {
+            throw new IllegalArgumentException(result.getError());
+        }
+        throw new RuntimeException("Search failed: " + result.getError());
+    }
+
+    private RequestItem toRequestItem(SearchRequest request) {
+        SourceFilter sourceFilter = courseQueryBuilder.buildSourceFilter(request);
+        List<SortOptions> sort = courseQueryBuilder.buildSort(request.getSort());
+        Query query = request.isFacets()
+                ? courseQueryBuilder.buildFacetedQuery(request)
+                : courseQueryBuilder.buildSearchQuery(request);
+        Query postFilter = request.isFacets() ? courseQueryBuilder.buildPostFilter(request) : null;
+        Map<String, Aggregation> aggregations = request.isFacets()
+                ? courseQueryBuilder.buildFacetAggregations(request)
+                : Map.of();
+
+        return RequestItem.of(r -> r
+                .header(h -> h.requestCache(requestCache))
+                .body(b -> {
+                    b.query(query)
+                            .sort(sort)
+                            .from(request.getPage() * request.getSize())
+                            .size(request.getSize());
+                    if (postFilter != null) {
+                        b.postFilter(postFilter);
+                    }
+                    if (!aggregations.isEmpty()) {
+                        b.aggregations(aggregations);
+                    }
+                    if (sourceFilter != null) {
+                        b.source(src -> src.filter(f -> f.includes(Arrays.asList(sourceFilter.getIncludes()))));
+                    }
+                    return b;
+                }));
+    }
+
+    private static boolean hasCursor(SearchRequest request) {
+        return request.getCursor() != null && !request.getCursor().isEmpty();
+    }
+
+    /**
+     * Deep pagination over a point-in-time with {@code search_after}: each page costs the same
+     * regardless of depth. Filters must be resent with every page; the sort comes from the cursor.
+     * At most {@code courses.search.cursor.max-open} PITs are open at once; a new cursor beyond that gets a 429.
+     */
+    private SearchResponse searchWithCursor(SearchRequest request) {
+        SearchCursor cursor;
+        String pointInTimeId;
+        if (SearchCursor.START.equals(request.getCursor())) {
+            pointInTimeId = openPointInTime();
+            cursor = new SearchCursor(pointInTimeId, request.getSort(), List.of());
+        } else {
+            cursor = SearchCursor.decode(request.getCursor());
+            pointInTimeId = cursor.pointInTimeId();
+        }
+
+        NativeQueryBuilder queryBuilder = withQuery(NativeQuery.builder(), request)
+                .withSort(courseQueryBuilder.buildSort(cursor.sort()))
+                .withPageable(PageRequest.of(0, request.getSize()))
+                .withSourceFilter(courseQueryBuilder.buildSourceFilter(request))
+                .withPointInTime(new org.springframework.data.elasticsearch.core.query.Query.PointInTime(
+                        pointInTimeId, cursorKeepAlive));
+        if (!cursor.searchAfter().isEmpty()) {
+            queryBuilder.withSearchAfter(cursor.searchAfter());
+        }
+
+        NativeQuery query = queryBuilder.build();
+        SearchHits<CourseDocument> searchHits;
+        try {
+            searchHits = concurrencyLimiter.call(() -> elasticsearchOperations.search(query, CourseDocument.class));
+        } catch (ResourceNotFoundException e) {
+            // The PIT outlived its keep-alive; that's the client's cursor going stale, not the backend failing.
+            pointsInTime.closed(pointInTimeId);
+            throw new IllegalArgumentException("Search cursor has expired", e);
+        }
+        List<SearchHit<CourseDocument>> hits = searchHits.getSearchHits();
+
+        String nextPointInTimeId = searchHits.getPointInTimeId() != null
+                ? searchHits.getPointInTimeId()
+                : pointInTimeId;
+
+        String nextCursor = null;
+        if (hits.size() == request.getSize()) {
+            pointsInTime.used(pointInTimeId, nextPointInTimeId);
+            List<Object> searchAfter = hits.get(hits.size() - 1).getSortValues();
+            nextCursor = new SearchCursor(nextPointInTimeId, cursor.sort(), searchAfter).encode();
+        } else {
+            pointsInTime.closed(pointInTimeId);
+            closePointInTime(nextPointInTimeId);
+        }
+
+        SearchResponse response = toResponse(searchHits, request);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
+    private String openPointInTime() {
+        pointsInTime.reserve();
+        String pointInTimeId;
+        try {
+            pointInTimeId = concurrencyLimiter.call(() -> elasticsearchOperations.openPointInTime(
+                    IndexCoordinates.of(CourseDocument.INDEX_NAME), cursorKeepAlive));
+        } catch (RuntimeException e) {
+            pointsInTime.cancel();
+            throw e;
+        }
+        pointsInTime.opened(pointInTimeId);
+        return pointInTimeId;
+    }
+
+    // The page is already answered; a PIT that fails to close expires after its keep-alive anyway.
+    private void closePointInTime(String pointInTimeId) {
+        try {
+            concurrencyLimiter.call(() -> elasticsearchOperations.closePointInTime(pointInTimeId));
+        } catch (RuntimeException e) {
+            log.warn("Closing point-in-time failed, leaving it to expire: {}", e.getMessage());
+        }
+    }
+
+    private SearchResponse executeSearch(SearchRequest request) {
+        long start = System.nanoTime();
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize());
+
+        NativeQuery nativeQuery = withQuery(NativeQuery.builder(), request)
+                .withPageable(pageable)
+                .withSort(courseQueryBuilder.buildSort(request.getSort()))
+                .withSourceFilter(courseQueryBuilder.buildSourceFilter(request))
+                .withRequestCache(requestCache)
+                .build();
+        long built = System.nanoTime();
+        searchMetrics.record("search", SearchMetrics.STAGE_BUILD_QUERY, request, built - start);
+
+        SearchHits<CourseDocument> searchHits =
+                concurrencyLimiter.call(() -> elasticsearchOperations.search(nativeQuery, CourseDocument.class));
+        long fetched = System.nanoTime();
+        searchMetrics.record("search", SearchMetrics.STAGE_ES_ROUND_TRIP, request, fetched - built);
+        if (searchHits.getExecutionDuration() != null) {
+            searchMetrics.record("search", SearchMetrics.STAGE_ES_TOOK, request,
+                    searchHits.getExecutionDuration().toNanos());
+        }
+
+        SearchResponse response = toResponse(searchHits, request);
+        searchMetrics.record("search", SearchMetrics.STAGE_MAP_HITS, request, System.nanoTime() - fetched);
+        return response;
+    }
+
+    // A one-entry _msearch, so the request is built and its hits mapped exactly as for batch entries.
+    private CompletableFuture<SearchResponse> executeSearchAsync(SearchRequest request) {
+        long start = System.nanoTime();
+        List<RequestItem> items = List.of(toRequestItem(request));
+        long built = System.nanoTime();
+        searchMetrics.record("search", SearchMetrics.STAGE_BUILD_QUERY, request, built - start);
+
+        return concurrencyLimiter.callAsync(() -> msearchAsync(items))
+                .thenApply(response -> {
+                    long fetched = System.nanoTime();
+                    searchMetrics.record("search", SearchMetrics.STAGE_ES_ROUND_TRIP, request, fetched - built);
+                    MultiSearchResponseItem<CourseDocument> item = response.responses().get(0);
+                    if (item.isFailure()) {
+                        return toSearchResponse(
+                                new BatchSearchResult(item.failure().status(), item.failure().error().reason()));
+                    }
+                    searchMetrics.record("search", SearchMetrics.STAGE_ES_TOOK, request,
+                            Duration.ofMillis(item.result().took()).toNanos());
+
+                    SearchResponse mapped = toResponse(item.result(), request);
+                    searchMetrics.record("search", SearchMetrics.STAGE_MAP_HITS, request, System.nanoTime() - fetched);
+                    return mapped;
+                });
+    }
+
+    // Facet requests move the facet filters to post_filter and add the facet aggregations to the same request.
+    private NativeQueryBuilder withQuery(NativeQueryBuilder queryBuilder, SearchRequest request) {
+        if (!request.isFacets()) {
+            return queryBuilder.withQuery(courseQueryBuilder.buildSearchQuery(request));
+        }
+
+        queryBuilder.withQuery(courseQueryBuilder.buildFacetedQuery(request));
+        Query postFilter = courseQueryBuilder.buildPostFilter(request);
+        if (postFilter != null) {
+            queryBuilder.withFilter(postFilter);
+        }
+        courseQueryBuilder.buildFacetAggregations(request).forEach(queryBuilder::withAggregation);
+        return queryBuilder;
+    }
+
+    private Map<String, List<FacetBucket>> toFacets(Map<String, Aggregate> aggregates) {
+        Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+        aggregates.forEach((name, aggregate) -> {
+            Aggregate values = aggregate.filter().aggregations().get(CourseQueryBuilder.FACET_VALUES);
+            facets.put(name, toBuckets(values));
+        });
+        return facets;
+    }
+
+    private List<FacetBucket> toBuckets(Aggregate values) {
+        if (values.isSterms()) {
+            return values.sterms().buckets().array().stream()
+                    .map(bucket -> new FacetBucket(bucket.key().stringValue(), bucket.docCount()))
+                    .toList();
+        }
+        if (values.isHistogram()) {
+            return values.histogram().buckets().array().stream()
+                    .map(bucket -> new FacetBucket(
+                            BigDecimal.valueOf(bucket.key()).stripTrailingZeros().toPlainString(), bucket.docCount()))
+                    .toList();
+        }
+        if (values.isFilters()) {
+            return values.filters().buckets().keyed().entrySet().stream()
+                    .map(bucket -> new FacetBucket(bucket.getKey(), bucket.getValue().docCount()))
+                    .toList();
+        }
+        return List.of();
+    }
+
+    private SearchResponse toResponse(SearchHits<CourseDocument> searchHits, SearchRequest request) {
+        List<CourseDocument> courses = searchHits.getSearchHits()
+                .stream()
+                .map(SearchHit::getContent)
+                .toList();
+
+        Map<String, Aggregate> aggregates = new LinkedHashMap<>();
+        if (searchHits.hasAggregations()) {
+            ((ElasticsearchAggregations) searchHits.getAggregations()).aggregationsAsMap()
+                    .forEach((name, aggregation) -> aggregates.put(name, aggregation.aggregation().getAggregate()));
+        }
+        return toResponse(courses, searchHits.getTotalHits(), aggregates, request);
+    }
+
+    private SearchResponse toResponse(MultiSearchItem<CourseDocument> result, SearchRequest request) {
+        List<CourseDocument> courses = result.hits().hits().stream()
+                .map(this::toCourse)
+                .toList();
+        long totalHits = result.hits().total() != null ? result.hits().total().value() : courses.size();
+        return toResponse(courses, totalHits, result.aggregations(), request);
+    }
+
+    private CourseDocument toCourse(Hit<CourseDocument> hit) {
+        CourseDocument course = hit.source();
+        course.setId(hit.id());
+        return course;
+    }
+
+    private SearchResponse toResponse(List<CourseDocument> courses, long totalHits, Map<String, Aggregate> aggregates,
+                                      SearchRequest request) {
+        int totalPages = (int) Math.ceil((double) totalHits / request.getSize());
+
+
+        SearchResponse response = new SearchResponse();
+        response.setTotal(totalHits);
+        response.setCourses(courses);
+        response.setPage(request.getPage());
+        response.setSize(request.getSize());
+        response.setTotalPages(totalPages);
+        response.setProjected(request.isProjected());
+        if (!aggregates.isEmpty()) {
+            response.setFacets(toFacets(aggregates));
+        }
+
+        return response;
+    }
+
+
+    @Override
+    public List<String> getSuggestions(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+
+        List<String> local = suggestionEngine.suggest(query, suggestSize);
+        if (local != null) {
+            return local;
+        }
+
+        return searchCircuitBreaker.call(
+                () -> fetchSuggestions(query),
+                () -> localSearchEngine.suggest(query, suggestSize));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getSuggestionsAsync(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        List<String> local = suggestionEngine.suggest(query, suggestSize);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+
+        return searchCircuitBreaker.callAsync(
+                () -> fetchSuggestionsAsync(query),
+                () -> localSearchEngine.suggest(query, suggestSize));
+    }
+
+    /**
+     * Titles come from {@code title.keyword} doc values with {@code _source} off, and collapsing on the same
+     * field drops courses that share a title, so each hit costs one doc-value lookup and no JSON tree.
+     */
+    private List<String> fetchSuggestions(String query) {
+        var searchRequest = suggestRequest(query);
+        try {
+            var response = concurrencyLimiter.call(() -> {
+                try {
+                    return elasticsearchClient.search(searchRequest, Void.class);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return toSuggestions(response);
+
+        } catch (SearchOverloadedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch suggestions", e);
+        }
+    }
+
+    private CompletableFuture<List<String>> fetchSuggestionsAsync(String query) {
+        var searchRequest = suggestRequest(query);
+        return concurrencyLimiter.callAsync(() -> elasticsearchAsyncClient.search(searchRequest, Void.class))
+                .thenApply(this::toSuggestions);
+    }
+
+    private co.elastic.clients.elasticsearch.core.SearchRequest suggestRequest(String query) {
+        Query autocompleteOrFuzzy = Query.of(q -> q
+                .bool(b -> b
+                        .should(s1 -> s1
+                                .matchPhrasePrefix(mpp -> mpp
+                                        .field("titleSuggest")
+                                        .query(query)
+                                )
+                        )
+                        .should(s2 -> s2
+                                .match(m -> m
+                                        .field("titleSuggest")
+                                        .query(query)
+                                        .fuzziness("AUTO")
+                                )
+                        )
+                        .minimumShouldMatch("1")
+                )
+        );
+
+        return co.elastic.clients.elasticsearch.core.SearchRequest.of(s -> s
+                .index(CourseDocument.INDEX_NAME)
+                .query(autocompleteOrFuzzy)
+                .source(src -> src.fetch(false))
+                .docvalueFields(f -> f.field(SUGGEST_TITLE_FIELD))
+                .collapse(c -> c.field(SUGGEST_TITLE_FIELD))
+                .size(suggestSize)
+        );
+    }
+
+    private List<String> toSuggestions(co.elastic.clients.elasticsearch.core.SearchResponse<Void> response) {
+        List<String> titles = new ArrayList<>(response.hits().hits().size());
+        for (Hit<Void> hit : response.hits().hits()) {
+            JsonData values = hit.fields().get(SUGGEST_TITLE_FIELD);
+            if (values != null) {
+                titles.add(values.toJson().asJsonArray().getString(0));
+            }
+        }
+        return titles;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (searchBatcher != null) {
+            searchBatcher.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.BatchSearchResult;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process search backend for the {@code embedded} profile: no Elasticsearch, the catalog is loaded from
+ * a memory-mapped {@link CourseSegment} (written from the JSON source on first start, and again whenever the
+ * source changes) into a {@link LocalSearchIndex}.
+ */
+@Slf4j
+@Service
+@Profile("embedded")
+public class EmbeddedCourseSearchService implements CourseSearchService {
+
+    private final LocalSearchIndex index;
+    private final SearchClock searchClock;
+    private final int suggestSize;
+
+    public EmbeddedCourseSearchService(CourseJsonReader courseJsonReader,
+                                       @Value("${courses.embedded.source:classpath:sample-courses.json}") Resource source,
+                                       @Value("${courses.embedded.segment-path:data/courses.seg}") Path segmentPath,
+                                       SearchClock searchClock,
+                                       @Value("${courses.suggest.size:10}") int suggestSize) {
+        this.searchClock = searchClock;
+        this.suggestSize = suggestSize;
+        long start = System.nanoTime();
+        List<CourseDocument> courses = load(courseJsonReader, source, segmentPath);
+        this.index = LocalSearchIndex.build(courses);
+        log.info("Embedded search engine loaded {} courses from {} in {} ms",
+                courses.size(), segmentPath, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public SearchResponse searchCourses(SearchRequest request) {
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            throw new IllegalArgumentException("Cursor pagination is not available in embedded mode");
+        }
+        return index.search(request, searchClock.now());
+    }
+
+    @Override
+    public List<BatchSearchResult> searchBatch(List<SearchRequest> requests) {
+        List<BatchSearchResult> results = new ArrayList<>(requests.size());
+        for (SearchRequest request : requests) {
+            try {
+                results.add(new BatchSearchResult(searchCourses(request)));
+            } catch (IllegalArgumentException e) {
+                results.add(new BatchSearchResult(400, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<String> getSuggestions(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        return index.suggest(query, suggestSize);
+    }
+
+    // The segment is only reused if it was built from the current source; anything else rebuilds it.
+    private static List<CourseDocument> load(CourseJsonReader courseJsonReader, Resource source, Path segmentPath) {
+        try {
+            byte[] fingerprint;
+            try (InputStream inputStream = source.getInputStream()) {
+                fingerprint = CourseSegment.fingerprint(inputStream);
+            }
+
+            if (Files.exists(segmentPath)) {
+                try {
+                    return CourseSegment.read(segmentPath, fingerprint);
+                } catch (IOException e) {
+                    log.warn("Rebuilding segment {}: {}", segmentPath, e.getMessage());
+                }
+            }
+
+            List<CourseDocument> courses = new ArrayList<>();
+            try (InputStream inputStream = source.getInputStream()) {
+                courseJsonReader.readCourses(inputStream, (course, size) -> courses.add(course));
+            }
+            CourseSegment.write(segmentPath, courses, fingerprint);
+            return courses;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load embedded course index", e);
+        }
+    }
+}
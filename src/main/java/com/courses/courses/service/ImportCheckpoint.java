@@ -0,0 +1,56 @@
+package com.courses.courses.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+/**
+ * What a directory import has finished so far: the index it loads into and the files whose documents
+ * have all been acknowledged, with the size and modification time they had then.
+ */
+public record ImportCheckpoint(String directory, String index, Set<CompletedFile> completedFiles) {
+
+    public record CompletedFile(String name, long size, long lastModified) {
+
+        public static CompletedFile of(Path file) throws IOException {
+            return new CompletedFile(file.getFileName().toString(), Files.size(file),
+                    Files.getLastModifiedTime(file).toMillis());
+        }
+    }
+
+    /**
+     * @return the checkpoint, or {@code null} if there is none or it was written in an older format
+     */
+    public static ImportCheckpoint load(Path path, ObjectMapper objectMapper) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(path.toFile(), ImportCheckpoint.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes to a temporary file next to {@code path} and moves it into place, so a crash mid-write
+     * leaves the previous checkpoint intact.
+     */
+    public void save(Path path, ObjectMapper objectMapper) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(tmp.toFile(), this);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
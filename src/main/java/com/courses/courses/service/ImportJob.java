@@ -0,0 +1,347 @@
+package com.courses.courses.service;
+
+import com.courses.courses.dto.ImportProgress;
+import com.courses.courses.dto.IngestionReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One run of a directory import: every {@code .json} / {@code .ndjson} file (optionally {@code .gz}) is parsed
+ * on a bounded pool and fed into a shared {@link BulkIndexer}. Uncompressed NDJSON is read through
+ * {@link MappedNdjsonReader} in line-aligned chunks, so a single large export is parsed in parallel too. Each file
+ * counts its documents' acknowledgements from the indexer and goes into the checkpoint once all of them were
+ * indexed; a file with a failed document is not checkpointed and fails the run. Files that were in flight during
+ * a crash are imported again on resume, which is harmless because documents are indexed by id.
+ */
+@Slf4j
+public class ImportJob {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private static final int MAX_RECORDED_ERRORS = 100;
+
+    private final Path directory;
+    private final String indexName;
+    private final BulkIngestionService bulkIngestionService;
+    private final ObjectMapper objectMapper;
+    private final Path checkpointPath;
+    private final int parallelism;
+    private final Map<String, ImportCheckpoint.CompletedFile> completedFiles;
+    private final List<FileImport> fileImports = Collections.synchronizedList(new ArrayList<>());
+
+    private final long startedAt = System.nanoTime();
+    private final AtomicInteger filesTotal = new AtomicInteger();
+    private final AtomicInteger filesCompleted = new AtomicInteger();
+    private final AtomicInteger filesSkipped = new AtomicInteger();
+    private final AtomicInteger filesFailed = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile BulkIndexer indexer;
+    private volatile State state = State.RUNNING;
+    private volatile long finishedAt;
+
+    public ImportJob(Path directory, ImportCheckpoint checkpoint, BulkIngestionService bulkIngestionService,
+                     ObjectMapper objectMapper, Path checkpointPath, int parallelism) {
+        this.directory = directory;
+        this.indexName = checkpoint.index();
+        this.bulkIngestionService = bulkIngestionService;
+        this.objectMapper = objectMapper;
+        this.checkpointPath = checkpointPath;
+        this.parallelism = parallelism;
+        this.completedFiles = new LinkedHashMap<>();
+        checkpoint.completedFiles().forEach(file -> completedFiles.put(file.name(), file));
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Imports every file not yet in the checkpoint.
+     *
+     * @return {@code true} when every file made it into the index
+     */
+    public boolean run() throws IOException, InterruptedException {
+        List<Path> files = listFiles();
+        filesTotal.set(files.size());
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "course-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        indexer = bulkIngestionService.openIndexer(indexName);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Path file : files) {
+                if (isCompleted(file)) {
+                    filesSkipped.incrementAndGet();
+                } else {
+                    submit(pool, file, tasks);
+                }
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Import worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            indexer.finish();
+        }
+
+        synchronized (fileImports) {
+            for (FileImport fileImport : fileImports) {
+                if (!fileImport.settled.get()) {
+                    fail(fileImport, new IllegalStateException("not every document was acknowledged"));
+                }
+            }
+        }
+
+        IngestionReport report = indexer.report();
+        log.info("Imported {} courses from {} into {} ({} files skipped, {} failed, {} failed documents) in {} ms",
+                report.getDocuments(), directory, indexName, filesSkipped.get(), filesFailed.get(),
+                report.getFailed(), report.getElapsedMillis());
+        return filesFailed.get() == 0;
+    }
+
+    public void finish(State finalState) {
+        finishedAt = System.nanoTime();
+        state = finalState;
+    }
+
+    public void recordError(String error) {
+        synchronized (errors) {
+            if (errors.size() < MAX_RECORDED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public ImportProgress progress() {
+        long end = state == State.RUNNING ? System.nanoTime() : finishedAt;
+        long elapsedMillis = Math.max((end - startedAt) / 1_000_000, 1);
+        IngestionReport report = indexer != null ? indexer.report() : null;
+        long documents = report != null ? report.getDocuments() : 0;
+
+        ImportProgress progress = new ImportProgress();
+        progress.setState(state.name());
+        progress.setDirectory(directory.toString());
+        progress.setIndex(indexName);
+        progress.setFilesTotal(filesTotal.get());
+        progress.setFilesCompleted(filesCompleted.get());
+        progress.setFilesSkipped(filesSkipped.get());
+        progress.setFilesFailed(filesFailed.get());
+        progress.setDocuments(documents);
+        progress.setFailed(report != null ? report.getFailed() : 0);
+        progress.setBytes(bytes.get());
+        progress.setDocsPerSecond(documents * 1000.0 / elapsedMillis);
+        progress.setBytesPerSecond(bytes.get() * 1000.0 / elapsedMillis);
+        progress.setElapsedMillis(elapsedMillis);
+        synchronized (errors) {
+            progress.setErrors(List.copyOf(errors));
+        }
+        return progress;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries
+                    .filter(Files::isRegularFile)
+                    .filter(ImportJob::isImportable)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static boolean isImportable(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".json") || name.endsWith(".ndjson");
+    }
+
+    // Plain NDJSON is mapped and split on line boundaries so one large file is parsed by several workers;
+    // anything else is streamed by a single worker.
+    private void submit(ExecutorService pool, Path file, List<Future<?>> tasks) {
+        if (MappedNdjsonReader.isMappable(file)) {
+            List<MappedByteBuffer> chunks;
+            try {
+                chunks = MappedNdjsonReader.split(file, parallelism);
+            } catch (IOException e) {
+                fail(new FileImport(file, 1), e);
+                return;
+            }
+            if (!chunks.isEmpty()) {
+                FileImport fileImport = track(new FileImport(file, chunks.size()));
+                for (MappedByteBuffer chunk : chunks) {
+                    tasks.add(pool.submit(() -> importPart(fileImport,
+                            () -> new CountingInputStream(MappedNdjsonReader.inputStream(chunk), bytes))));
+                }
+                return;
+            }
+        }
+        FileImport fileImport = track(new FileImport(file, 1));
+        tasks.add(pool.submit(() -> importPart(fileImport, () -> open(file))));
+    }
+
+    private FileImport track(FileImport fileImport) {
+        fileImports.add(fileImport);
+        return fileImport;
+    }
+
+    private void importPart(FileImport fileImport, InputSource source) {
+        try (InputStream in = source.open()) {
+            bulkIngestionService.readCourses(in, (course, sizeHint) -> {
+                fileImport.added.incrementAndGet();
+                indexer.add(course, sizeHint, indexed -> acknowledge(fileImport, indexed));
+            });
+        } catch (IOException | RuntimeException e) {
+            fail(fileImport, e);
+        }
+
+        if (fileImport.remaining.decrementAndGet() == 0) {
+            settleIfDone(fileImport);
+        }
+    }
+
+    private void acknowledge(FileImport fileImport, boolean indexed) {
+        if (!indexed) {
+            fileImport.failedDocuments.incrementAndGet();
+        }
+        fileImport.acknowledged.incrementAndGet();
+        settleIfDone(fileImport);
+    }
+
+    // Runs once per file, from whichever comes last: the end of parsing or the last acknowledgement.
+    private void settleIfDone(FileImport fileImport) {
+        if (fileImport.remaining.get() > 0 || fileImport.acknowledged.get() < fileImport.added.get()
+                || !fileImport.settled.compareAndSet(false, true)) {
+            return;
+        }
+        if (fileImport.failedDocuments.get() > 0) {
+            fail(fileImport, new IllegalStateException(fileImport.failedDocuments.get() + " documents failed to index"));
+            return;
+        }
+        if (fileImport.failed.get()) {
+            return;
+        }
+        try {
+            markCompleted(fileImport.file);
+        } catch (IOException | RuntimeException e) {
+            fail(fileImport, e);
+        }
+    }
+
+    private void fail(FileImport fileImport, Exception e) {
+        fileImport.settled.set(true);
+        if (fileImport.failed.compareAndSet(false, true)) {
+            filesFailed.incrementAndGet();
+            recordError(fileImport.file.getFileName() + ": " + e.getMessage());
+            log.warn("Importing {} failed: {}", fileImport.file, e.getMessage());
+        }
+    }
+
+    private InputStream open(Path file) throws IOException {
+        InputStream in = new CountingInputStream(Files.newInputStream(file), bytes);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedInputStream(in, 64 * 1024);
+    }
+
+    // A file that changed since it was checkpointed is imported again.
+    private synchronized boolean isCompleted(Path file) throws IOException {
+        ImportCheckpoint.CompletedFile completed = completedFiles.get(file.getFileName().toString());
+        return completed != null && completed.equals(ImportCheckpoint.CompletedFile.of(file));
+    }
+
+    // Called from the indexer's threads once every document of the file is acknowledged; workers keep parsing.
+    private synchronized void markCompleted(Path file) throws IOException {
+        ImportCheckpoint.CompletedFile completed = ImportCheckpoint.CompletedFile.of(file);
+        completedFiles.put(completed.name(), completed);
+        new ImportCheckpoint(directory.toString(), indexName, Set.copyOf(completedFiles.values()))
+                .save(checkpointPath, objectMapper);
+        filesCompleted.incrementAndGet();
+    }
+
+    private interface InputSource {
+        InputStream open() throws IOException;
+    }
+
+    private static final class FileImport {
+
+        private final Path file;
+        private final AtomicInteger remaining;
+        private final AtomicLong added = new AtomicLong();
+        private final AtomicLong acknowledged = new AtomicLong();
+        private final AtomicLong failedDocuments = new AtomicLong();
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        FileImport(Path file, int parts) {
+            this.file = file;
+            this.remaining = new AtomicInteger(parts);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
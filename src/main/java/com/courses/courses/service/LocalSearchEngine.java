@@ -0,0 +1,71 @@
+package com.courses.courses.service;
+
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps a {@link LocalSearchIndex} over the {@link CourseCatalog} snapshot, rebuilt whenever the catalog changes,
+ * so searches can still be answered while Elasticsearch is unreachable.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class LocalSearchEngine {
+
+    private final SearchClock searchClock;
+    private volatile LocalSearchIndex index;
+
+    @Value("${courses.search.local.enabled:true}")
+    private boolean enabled;
+
+    public LocalSearchEngine(SearchClock searchClock) {
+        this.searchClock = searchClock;
+    }
+
+    /**
+     * Facets and projections are not supported; hits are always whole documents.
+     *
+     * @return the response, or {@code null} when no snapshot is available
+     */
+    public SearchResponse search(SearchRequest request) {
+        LocalSearchIndex current = index;
+        if (!enabled || current == null) {
+            return null;
+        }
+        return current.search(request, searchClock.now());
+    }
+
+    /**
+     * @return suggestions, or {@code null} when no snapshot is available
+     */
+    public List<String> suggest(String prefix, int limit) {
+        LocalSearchIndex current = index;
+        if (!enabled || current == null) {
+            return null;
+        }
+        return current.suggest(prefix, limit);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            index = LocalSearchIndex.build(event.courses());
+        } catch (RuntimeException e) {
+            log.warn("Local search snapshot rebuild failed, keeping the previous one: {}", e.getMessage());
+            return;
+        }
+        log.info("Local search snapshot rebuilt with {} courses in {} ms",
+                event.courses().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,328 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable in-memory copy of the catalog that answers the same filters and sorts as
+ * {@link CourseQueryBuilder}. Numeric fields are stored as primitive columns, category and type are
+ * dictionary encoded with one bitset per value, and title/description terms have posting lists.
+ * Each sort order is a precomputed permutation, so a search is a few bitset operations plus one scan.
+ */
+public final class LocalSearchIndex {
+
+    private final CourseDocument[] courses;
+    private final int[] minAges;
+    private final int[] maxAges;
+    private final long[] dates; // epoch millis
+    private final long[] prices; // cents
+    private final BitSet hasMinAge;
+    private final BitSet hasMaxAge;
+    private final BitSet hasDate;
+    private final BitSet hasPrice;
+
+    private final Map<String, BitSet> categoryDocs;
+    private final Map<String, BitSet> typeDocs;
+
+    // Sorted term dictionary; postings[i] are the ids of documents whose title or description contains terms[i].
+    private final String[] terms;
+    private final int[][] postings;
+    private final int[][] titlePostings;
+
+    private final Map<SearchRequest.SortOption, int[]> sortOrders;
+
+    private LocalSearchIndex(CourseDocument[] courses) {
+        int n = courses.length;
+        this.courses = courses;
+        this.minAges = new int[n];
+        this.maxAges = new int[n];
+        this.dates = new long[n];
+        this.prices = new long[n];
+        this.hasMinAge = new BitSet(n);
+        this.hasMaxAge = new BitSet(n);
+        this.hasDate = new BitSet(n);
+        this.hasPrice = new BitSet(n);
+        this.categoryDocs = new HashMap<>();
+        this.typeDocs = new HashMap<>();
+
+        TreeMap<String, BitSet> anyField = new TreeMap<>();
+        Map<String, BitSet> titleOnly = new HashMap<>();
+        for (int doc = 0; doc < n; doc++) {
+            CourseDocument course = courses[doc];
+            if (course.getMinAge() != null) {
+                minAges[doc] = course.getMinAge();
+                hasMinAge.set(doc);
+            }
+            if (course.getMaxAge() != null) {
+                maxAges[doc] = course.getMaxAge();
+                hasMaxAge.set(doc);
+            }
+            if (course.getNextSessionDate() != null) {
+                dates[doc] = course.getNextSessionDate().toEpochMilli();
+                hasDate.set(doc);
+            }
+            if (course.getPrice() != null) {
+                prices[doc] = toCents(course.getPrice(), RoundingMode.HALF_UP);
+                hasPrice.set(doc);
+            }
+            if (course.getCategory() != null) {
+                categoryDocs.computeIfAbsent(course.getCategory(), k -> new BitSet(n)).set(doc);
+            }
+            if (course.getType() != null) {
+                typeDocs.computeIfAbsent(course.getType().name(), k -> new BitSet(n)).set(doc);
+            }
+            for (String term : tokenize(course.getTitle())) {
+                anyField.computeIfAbsent(term, k -> new BitSet(n)).set(doc);
+                titleOnly.computeIfAbsent(term, k -> new BitSet(n)).set(doc);
+            }
+            for (String term : tokenize(course.getDescription())) {
+                anyField.computeIfAbsent(term, k -> new BitSet(n)).set(doc);
+            }
+        }
+
+        this.terms = anyField.keySet().toArray(String[]::new);
+        this.postings = new int[terms.length][];
+        this.titlePostings = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            postings[i] = anyField.get(terms[i]).stream().toArray();
+            BitSet title = titleOnly.get(terms[i]);
+            titlePostings[i] = title == null ? new int[0] : title.stream().toArray();
+        }
+
+        this.sortOrders = new LinkedHashMap<>();
+        for (SearchRequest.SortOption option : SearchRequest.SortOption.values()) {
+            sortOrders.put(option, sortOrder(option));
+        }
+    }
+
+    public static LocalSearchIndex build(List<CourseDocument> courses) {
+        return new LocalSearchIndex(courses.toArray(CourseDocument[]::new));
+    }
+
+    public int size() {
+        return courses.length;
+    }
+
+    /**
+     * @param now lower bound for {@code nextSessionDate} when the request has no start date
+     */
+    public SearchResponse search(SearchRequest request, Instant now) {
+        BitSet matches = filter(request, now);
+        int[] order = sortOrders.get(request.getSort() == null
+                ? SearchRequest.SortOption.UPCOMING
+                : request.getSort());
+
+        int from = request.getPage() * request.getSize();
+        List<CourseDocument> page = new ArrayList<>(request.getSize());
+        int seen = 0;
+        for (int i = 0; i < order.length && page.size() < request.getSize(); i++) {
+            if (matches.get(order[i]) && seen++ >= from) {
+                page.add(courses[order[i]]);
+            }
+        }
+
+        long total = matches.cardinality();
+        SearchResponse response = new SearchResponse();
+        response.setTotal(total);
+        response.setCourses(page);
+        response.setPage(request.getPage());
+        response.setSize(request.getSize());
+        response.setTotalPages((int) Math.ceil((double) total / request.getSize()));
+        return response;
+    }
+
+    /**
+     * Titles with a word starting with the last word of {@code prefix} and containing the words before it,
+     * in alphabetical order.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> words = tokenize(prefix);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        BitSet matches = new BitSet(courses.length);
+        String last = words.get(words.size() - 1);
+        int start = lowerBound(last);
+        for (int i = start; i < terms.length && terms[i].startsWith(last); i++) {
+            set(matches, titlePostings[i]);
+        }
+        for (String word : words.subList(0, words.size() - 1)) {
+            int idx = Arrays.binarySearch(terms, word);
+            BitSet wordDocs = new BitSet(courses.length);
+            if (idx >= 0) {
+                set(wordDocs, titlePostings[idx]);
+            }
+            matches.and(wordDocs);
+        }
+
+        TreeSet<String> titles = new TreeSet<>();
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            titles.add(courses[doc].getTitle());
+        }
+        return titles.stream().limit(limit).toList();
+    }
+
+    BitSet filter(SearchRequest request, Instant now) {
+        BitSet matches = new BitSet(courses.length);
+        matches.set(0, courses.length);
+
+        if (request.getQ() != null && !request.getQ().trim().isEmpty()) {
+            matches.and(textMatches(request.getQ()));
+        }
+
+        // Same overlap semantics as the age range queries: the course's range must intersect the requested one.
+        if (request.getMinAge() != null) {
+            int minAge = request.getMinAge();
+            matches.and(hasMaxAge);
+            clearIf(matches, doc -> maxAges[doc] < minAge);
+        }
+        if (request.getMaxAge() != null) {
+            int maxAge = request.getMaxAge();
+            matches.and(hasMinAge);
+            clearIf(matches, doc -> minAges[doc] > maxAge);
+        }
+
+        if (request.getCategory() != null && !request.getCategory().trim().isEmpty()) {
+            matches.and(categoryDocs.getOrDefault(request.getCategory(), new BitSet()));
+        }
+        if (request.getType() != null) {
+            matches.and(typeDocs.getOrDefault(request.getType().name(), new BitSet()));
+        }
+
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            matches.and(hasPrice);
+            if (request.getMinPrice() != null) {
+                long minPrice = toCents(request.getMinPrice(), RoundingMode.CEILING);
+                clearIf(matches, doc -> prices[doc] < minPrice);
+            }
+            if (request.getMaxPrice() != null) {
+                long maxPrice = toCents(request.getMaxPrice(), RoundingMode.FLOOR);
+                clearIf(matches, doc -> prices[doc] > maxPrice);
+            }
+        }
+
+        long from = (request.getStartDate() != null ? request.getStartDate() : now).toEpochMilli();
+        matches.and(hasDate);
+        clearIf(matches, doc -> dates[doc] < from);
+
+        return matches;
+    }
+
+    // multi_match over title and description with fuzziness AUTO: any query term, within its edit budget,
+    // in either field.
+    private BitSet textMatches(String q) {
+        BitSet matches = new BitSet(courses.length);
+        for (String word : tokenize(q)) {
+            int maxEdits = word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2;
+            if (maxEdits == 0) {
+                int idx = Arrays.binarySearch(terms, word);
+                if (idx >= 0) {
+                    set(matches, postings[idx]);
+                }
+                continue;
+            }
+            for (int i = 0; i < terms.length; i++) {
+                if (Math.abs(terms[i].length() - word.length()) <= maxEdits
+                        && editDistance(word, terms[i], maxEdits) <= maxEdits) {
+                    set(matches, postings[i]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Missing values sort last in both directions, like Elasticsearch; ties are broken by id.
+    private int[] sortOrder(SearchRequest.SortOption option) {
+        Comparator<Integer> byId = Comparator.comparing(doc -> courses[doc].getId(),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<Integer> byField = switch (option) {
+            case UPCOMING -> Comparator.comparingLong(doc -> dates[doc]);
+            case PRICE_ASC -> Comparator.comparingLong(doc -> prices[doc]);
+            case PRICE_DESC -> Comparator.<Integer>comparingLong(doc -> prices[doc]).reversed();
+        };
+        BitSet present = option == SearchRequest.SortOption.UPCOMING ? hasDate : hasPrice;
+        Comparator<Integer> order = Comparator.<Integer, Boolean>comparing(doc -> !present.get(doc))
+                .thenComparing((a, b) -> present.get(a) ? byField.compare(a, b) : 0)
+                .thenComparing(byId);
+
+        Integer[] docs = new Integer[courses.length];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = i;
+        }
+        Arrays.sort(docs, order);
+        return Arrays.stream(docs).mapToInt(Integer::intValue).toArray();
+    }
+
+    private int lowerBound(String term) {
+        int idx = Arrays.binarySearch(terms, term);
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    private void clearIf(BitSet matches, IntPredicate condition) {
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            if (condition.test(doc)) {
+                matches.clear(doc);
+            }
+        }
+    }
+
+    private static void set(BitSet bits, int[] docs) {
+        for (int doc : docs) {
+            bits.set(doc);
+        }
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String normalized = SuggestionIndex.normalize(text);
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split(" "));
+    }
+
+    // Levenshtein distance, giving up early once every cell of a row exceeds maxEdits.
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,117 @@
+package com.courses.courses.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a newline-delimited JSON file into memory-mapped chunks that end on line boundaries, so they can be
+ * parsed in parallel. The parser reads straight from the page cache through {@link #inputStream}; nothing is
+ * copied onto the heap beyond its own read buffer.
+ */
+public final class MappedNdjsonReader {
+
+    // Below this a chunk costs more in task overhead than it gains in parallelism.
+    static final long MIN_CHUNK_BYTES = 1L << 20;
+    static final long MAX_CHUNK_BYTES = 256L << 20;
+
+    private static final int SCAN_BUFFER_BYTES = 8192;
+
+    private MappedNdjsonReader() {
+    }
+
+    public static boolean isMappable(Path file) {
+        return file.getFileName().toString().endsWith(".ndjson");
+    }
+
+    /**
+     * Maps {@code file} as about {@code chunks} read-only buffers, each ending right after a newline except the
+     * last. Mappings stay valid after this returns; they are released when the buffers are collected.
+     */
+    public static List<MappedByteBuffer> split(Path file, int chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long target = Math.min(Math.max(size / Math.max(chunks, 1), MIN_CHUNK_BYTES), MAX_CHUNK_BYTES);
+
+            List<MappedByteBuffer> buffers = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = start + target >= size ? size : nextLineStart(channel, start + target, size);
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Line at offset " + start + " of " + file + " is longer than 2 GB");
+                }
+                buffers.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+                start = end;
+            }
+            return buffers;
+        }
+    }
+
+    public static InputStream inputStream(ByteBuffer buffer) {
+        return new ByteBufferInputStream(buffer.slice());
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long offset = position;
+        while (offset < size) {
+            scan.clear();
+            int read = channel.read(scan, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.min(Math.max(n, 0), buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed first pages of the hottest query shapes: the default upcoming listing with no filters, and the
+ * same listing narrowed to one category or one {@link CourseDocument.CourseType}. Each shape keeps the top
+ * {@code top-n} hits as ordinals into a document pool shared by all shapes, so a course listed under several
+ * shapes is held once. Snapshots are rebuilt on a schedule and after every new index, and are not served
+ * between the swap and the rebuild. Single-course writes only bring the next rebuild forward, to at most
+ * {@code change-debounce} after the last one; until then the snapshot keeps serving. Anything else goes to
+ * Elasticsearch as usual.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class MaterializedSearchResults {
+
+    private static final String CATEGORIES = "categories";
+
+    private record Shape(String category, CourseDocument.CourseType type) {
+    }
+
+    // Ordinals into the pool in sort order, with each hit's nextSessionDate so lapsed sessions can be skipped.
+    private record Entry(int[] ordinals, long[] sessionDates, long total) {
+    }
+
+    private record Snapshot(long generation, Instant builtAt, CourseDocument[] pool, Map<Shape, Entry> entries) {
+    }
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final CourseQueryBuilder courseQueryBuilder;
+    private final boolean enabled;
+    private final int topN;
+    private final int maxCategories;
+    private final SearchClock searchClock;
+    private final Duration changeDebounce;
+
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "materialized-search-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final AtomicBoolean changeRefreshQueued = new AtomicBoolean();
+
+    // Bumped on every index change; a snapshot built for an older generation is stale and not served.
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MaterializedSearchResults(ElasticsearchOperations elasticsearchOperations,
+                                     CourseQueryBuilder courseQueryBuilder,
+                                     @Value("${courses.search.materialized.enabled:true}") boolean enabled,
+                                     @Value("${courses.search.materialized.top-n:100}") int topN,
+                                     @Value("${courses.search.materialized.max-categories:50}") int maxCategories,
+                                     SearchClock searchClock,
+                                     @Value("${courses.search.materialized.change-debounce:5s}") Duration changeDebounce,
+                                     MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.courseQueryBuilder = courseQueryBuilder;
+        this.enabled = enabled;
+        this.topN = topN;
+        this.maxCategories = maxCategories;
+        this.searchClock = searchClock;
+        this.changeDebounce = changeDebounce;
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder("search.materialized.age", this, MaterializedSearchResults::getAgeSeconds)
+                .description("Seconds since the materialized results were built, -1 before the first build")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("search.materialized.stale", this, results -> results.isStale() ? 1 : 0)
+                .description("1 while the index has changed since the materialized results were built")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the response from the current snapshot, or {@code null} when the request is not a materialized
+     * shape, the snapshot is stale, or the requested page lies beyond the precomputed hits
+     */
+    public SearchResponse find(SearchRequest request) {
+        if (!enabled || !isMaterializedShape(request)) {
+            return null;
+        }
+
+        String category = request.getCategory() != null && !request.getCategory().trim().isEmpty()
+                ? request.getCategory()
+                : null;
+        Snapshot current = snapshot;
+        Entry entry = current != null && current.generation() == generation.get()
+                ? current.entries().get(new Shape(category, request.getType()))
+                : null;
+        SearchResponse response = entry != null ? serve(current, entry, request) : null;
+        (response != null ? hits : misses).increment();
+        return response;
+    }
+
+    public boolean isStale() {
+        Snapshot current = snapshot;
+        return current == null || current.generation() != generation.get();
+    }
+
+    public double getAgeSeconds() {
+        Snapshot current = snapshot;
+        return current == null ? -1 : (System.currentTimeMillis() - current.builtAt().toEpochMilli()) / 1000.0;
+    }
+
+    // Ascending by nextSessionDate, so sessions that have passed since the build are all at the front.
+    private SearchResponse serve(Snapshot current, Entry entry, SearchRequest request) {
+        long now = searchClock.nowMillis();
+        int first = 0;
+        while (first < entry.sessionDates().length && entry.sessionDates()[first] < now) {
+            first++;
+        }
+        boolean truncated = entry.total() > entry.ordinals().length;
+        int from = first + request.getPage() * request.getSize();
+        int to = from + request.getSize();
+        if (truncated && to > entry.ordinals().length) {
+            return null;
+        }
+
+        List<CourseDocument> courses = new ArrayList<>(request.getSize());
+        for (int i = from; i < Math.min(to, entry.ordinals().length); i++) {
+            courses.add(current.pool()[entry.ordinals()[i]]);
+        }
+
+        long total = entry.total() - first;
+        SearchResponse response = new SearchResponse();
+        response.setTotal(total);
+        response.setCourses(courses);
+        response.setPage(request.getPage());
+        response.setSize(request.getSize());
+        response.setTotalPages((int) Math.ceil((double) total / request.getSize()));
+        return response;
+    }
+
+    // The default listing, optionally narrowed to exactly one category or one type, whole documents only.
+    private static boolean isMaterializedShape(SearchRequest request) {
+        boolean hasCategory = request.getCategory() != null && !request.getCategory().trim().isEmpty();
+        if (hasCategory && request.getType() != null) {
+            return false;
+        }
+        return (request.getQ() == null || request.getQ().trim().isEmpty())
+                && request.getMinAge() == null && request.getMaxAge() == null
+                && request.getMinPrice() == null && request.getMaxPrice() == null
+                && request.getStartDate() == null
+                && (request.getCursor() == null || request.getCursor().isEmpty())
+                && !request.isFacets()
+                && request.getSort() == SearchRequest.SortOption.UPCOMING
+                && !request.isProjected();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduleRefresh();
+    }
+
+    @EventListener
+    public void onIndexChanged(CourseIndexChangedEvent event) {
+        generation.incrementAndGet();
+        scheduleRefresh();
+    }
+
+    @EventListener
+    public void onDocumentsChanged(CourseDocumentsChangedEvent event) {
+        if (!enabled || !changeRefreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        Snapshot current = snapshot;
+        long delay = current == null ? 0
+                : Math.max(0, current.builtAt().plus(changeDebounce).toEpochMilli() - System.currentTimeMillis());
+        refreshExecutor.schedule(() -> {
+            changeRefreshQueued.set(false);
+            runRefresh();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${courses.search.materialized.refresh-interval:5m}")
+    public void onSchedule() {
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (!enabled || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            refreshQueued.set(false);
+            runRefresh();
+        });
+    }
+
+    private void runRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Materialized search results refresh failed, {} snapshot kept: {}",
+                    isStale() ? "stale" : "current", e.getMessage());
+        }
+    }
+
+    void refresh() {
+        long start = System.nanoTime();
+        long builtFor = generation.get();
+
+        List<Shape> shapes = new ArrayList<>();
+        shapes.add(new Shape(null, null));
+        fetchCategories().forEach(category -> shapes.add(new Shape(category, null)));
+        for (CourseDocument.CourseType type : CourseDocument.CourseType.values()) {
+            shapes.add(new Shape(null, type));
+        }
+
+        List<NativeQuery> queries = shapes.stream().map(this::toQuery).toList();
+        List<SearchHits<CourseDocument>> results = elasticsearchOperations.multiSearch(queries, CourseDocument.class);
+
+        List<CourseDocument> pool = new ArrayList<>();
+        Map<String, Integer> ordinalsById = new HashMap<>();
+        Map<Shape, Entry> entries = new LinkedHashMap<>();
+        for (int i = 0; i < shapes.size(); i++) {
+            List<SearchHit<CourseDocument>> shapeHits = results.get(i).getSearchHits();
+            int[] ordinals = new int[shapeHits.size()];
+            long[] sessionDates = new long[shapeHits.size()];
+            for (int j = 0; j < shapeHits.size(); j++) {
+                CourseDocument course = shapeHits.get(j).getContent();
+                ordinals[j] = ordinalsById.computeIfAbsent(course.getId(), id -> {
+                    pool.add(course);
+                    return pool.size() - 1;
+                });
+                sessionDates[j] = course.getNextSessionDate().toEpochMilli();
+            }
+            entries.put(shapes.get(i), new Entry(ordinals, sessionDates, results.get(i).getTotalHits()));
+        }
+
+        snapshot = new Snapshot(builtFor, Instant.now(), pool.toArray(CourseDocument[]::new), entries);
+        log.info("Materialized {} search shapes over {} courses in {} ms{}", entries.size(), pool.size(),
+                (System.nanoTime() - start) / 1_000_000, builtFor != generation.get() ? ", already stale" : "");
+    }
+
+    private List<String> fetchCategories() {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(courseQueryBuilder.buildSearchQuery(new SearchRequest()))
+                .withAggregation(CATEGORIES, Aggregation.of(a -> a.terms(t -> t.field("category").size(maxCategories))))
+                .withMaxResults(0)
+                .build();
+        SearchHits<CourseDocument> searchHits = elasticsearchOperations.search(query, CourseDocument.class);
+        if (!searchHits.hasAggregations()) {
+            return List.of();
+        }
+        return ((ElasticsearchAggregations) searchHits.getAggregations()).get(CATEGORIES)
+                .aggregation().getAggregate().sterms().buckets().array().stream()
+                .map(bucket -> bucket.key().stringValue())
+                .toList();
+    }
+
+    private NativeQuery toQuery(Shape shape) {
+        SearchRequest request = new SearchRequest();
+        request.setCategory(shape.category());
+        request.setType(shape.type());
+        return NativeQuery.builder()
+                .withQuery(courseQueryBuilder.buildSearchQuery(request))
+                .withSort(courseQueryBuilder.buildSort(SearchRequest.SortOption.UPCOMING))
+                .withPageable(PageRequest.of(0, topN))
+                .withTrackTotalHits(true)
+                .build();
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("search.materialized.requests")
+                .description("Searches matching a materialized shape, by whether the snapshot answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
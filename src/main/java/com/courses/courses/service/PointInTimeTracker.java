@@ -0,0 +1,70 @@
+package com.courses.courses.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caps the point-in-time contexts that cursor searches keep open in Elasticsearch. Each one holds segments on
+ * every shard until it is closed, which happens on the last page, or until it sits idle for the keep-alive
+ * because the client stopped paging. A slot is reserved before a PIT is opened and is freed by whichever
+ * comes first.
+ */
+public class PointInTimeTracker {
+
+    private final int maxOpen;
+    private final long keepAliveNanos;
+    private final Map<String, Long> expiresAt = new HashMap<>();
+    private int reserved;
+
+    public PointInTimeTracker(int maxOpen, Duration keepAlive) {
+        this.maxOpen = maxOpen;
+        this.keepAliveNanos = keepAlive.toNanos();
+    }
+
+    /**
+     * Holds a slot for a PIT about to be opened. Follow with {@link #opened} or {@link #cancel}.
+     *
+     * @throws SearchOverloadedException when {@code max-open} PITs are already open
+     */
+    public synchronized void reserve() {
+        long now = removeExpired();
+        if (expiresAt.size() + reserved >= maxOpen) {
+            long untilFirstExpiry = expiresAt.values().stream().mapToLong(deadline -> deadline - now).min()
+                    .orElse(keepAliveNanos);
+            throw new SearchOverloadedException("Too many open search cursors", false,
+                    Duration.ofNanos(untilFirstExpiry));
+        }
+        reserved++;
+    }
+
+    public synchronized void opened(String pointInTimeId) {
+        reserved--;
+        expiresAt.put(pointInTimeId, System.nanoTime() + keepAliveNanos);
+    }
+
+    public synchronized void cancel() {
+        reserved--;
+    }
+
+    // Each page extends the keep-alive, and Elasticsearch may hand back a new id for the same PIT.
+    public synchronized void used(String pointInTimeId, String nextPointInTimeId) {
+        expiresAt.remove(pointInTimeId);
+        expiresAt.put(nextPointInTimeId, System.nanoTime() + keepAliveNanos);
+    }
+
+    public synchronized void closed(String pointInTimeId) {
+        expiresAt.remove(pointInTimeId);
+    }
+
+    public synchronized int getOpen() {
+        removeExpired();
+        return expiresAt.size();
+    }
+
+    private long removeExpired() {
+        long now = System.nanoTime();
+        expiresAt.values().removeIf(deadline -> deadline - now <= 0);
+        return now;
+    }
+}
@@ -0,0 +1,127 @@
+package com.courses.courses.service;
+
+import com.courses.courses.dto.BatchSearchResult;
+import com.courses.courses.dto.SearchRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Groups single searches that arrive within {@code window} of each other into one batch. A lone request waits
+ * at most the window. At most {@code maxInFlight} batches run at once; while they are all in flight, requests
+ * wait in a queue of at most {@code maxQueued}, and the next batch is drained from it once a worker is free.
+ * A request that finds the queue full is shed with a {@link SearchOverloadedException}.
+ */
+public class SearchBatcher implements AutoCloseable {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private record Pending(SearchRequest request, CompletableFuture<BatchSearchResult> result) {
+    }
+
+    private final Function<List<SearchRequest>, List<BatchSearchResult>> executor;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore freeWorkers;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    public SearchBatcher(Function<List<SearchRequest>, List<BatchSearchResult>> executor, Duration window,
+                         int maxBatchSize, int maxInFlight, int maxQueued) {
+        this.executor = executor;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new LinkedBlockingQueue<>(maxQueued);
+        this.freeWorkers = new Semaphore(maxInFlight);
+
+        // A batch is only handed over once a worker is free, so this queue never holds more than maxInFlight.
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(maxInFlight, maxInFlight, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxInFlight), r -> {
+            Thread thread = new Thread(r, "search-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "search-batch-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public CompletableFuture<BatchSearchResult> submit(SearchRequest request) {
+        if (closed) {
+            throw new RejectedExecutionException("Search batcher is closed");
+        }
+        CompletableFuture<BatchSearchResult> result = new CompletableFuture<>();
+        if (!queue.offer(new Pending(request, result))) {
+            throw new SearchOverloadedException("Search batch queue is full", false, RETRY_AFTER);
+        }
+        return result;
+    }
+
+    private void dispatch() {
+        while (!closed) {
+            List<Pending> batch = new ArrayList<>();
+            try {
+                freeWorkers.acquire();
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(p -> p.result().completeExceptionally(new RejectedExecutionException("Search batcher is closed")));
+                return;
+            }
+
+            try {
+                workers.execute(() -> run(batch));
+            } catch (RejectedExecutionException e) {
+                freeWorkers.release();
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void run(List<Pending> batch) {
+        try {
+            List<BatchSearchResult> results = executor.apply(batch.stream().map(Pending::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        } finally {
+            freeWorkers.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        workers.shutdown();
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new RejectedExecutionException("Search batcher is closed"));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalized form of a {@link SearchRequest}: requests that produce the same Elasticsearch query
+ * produce equal keys.
+ */
+public record SearchCacheKey(
+        String q,
+        Integer minAge,
+        Integer maxAge,
+        String category,
+        CourseDocument.CourseType type,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Instant startDate,
+        SearchRequest.SortOption sort,
+        int page,
+        int size,
+        SearchRequest.View view,
+        List<String> fields,
+        boolean facets) {
+
+    public static SearchCacheKey of(SearchRequest request) {
+        return new SearchCacheKey(
+                normalizeQuery(request.getQ()),
+                request.getMinAge(),
+                request.getMaxAge(),
+                blankToNull(request.getCategory()),
+                request.getType(),
+                normalizePrice(request.getMinPrice()),
+                normalizePrice(request.getMaxPrice()),
+                request.getStartDate(),
+                request.getSort(),
+                request.getPage(),
+                request.getSize(),
+                request.getView(),
+                request.getFields() == null || request.getFields().isEmpty() ? null : List.copyOf(request.getFields()),
+                request.isFacets());
+    }
+
+    // The standard analyzer lowercases and splits on whitespace, so neither case nor spacing changes the query.
+    private static String normalizeQuery(String q) {
+        String trimmed = blankToNull(q);
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal normalizePrice(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,189 @@
+package com.courses.courses.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to Elasticsearch. After {@code failure-threshold} consecutive failures or slow calls the
+ * breaker opens and calls go straight to the fallback for {@code open-duration}; then a single trial call
+ * decides whether it closes again.
+ */
+@Slf4j
+@Component
+public class SearchCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long slowCallNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Set while the single half-open trial call is running.
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    private final Counter fallbacks;
+
+    public SearchCircuitBreaker(@Value("${courses.search.breaker.enabled:true}") boolean enabled,
+                                @Value("${courses.search.breaker.failure-threshold:5}") int failureThreshold,
+                                @Value("${courses.search.breaker.open-duration:10s}") Duration openDuration,
+                                @Value("${courses.search.breaker.slow-call-threshold:2s}") Duration slowCallThreshold,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.fallbacks = Counter.builder("search.fallback")
+                .description("Searches answered by the local engine instead of Elasticsearch")
+                .register(meterRegistry);
+        Gauge.builder("search.circuit.open", state, s -> s.get() == State.CLOSED ? 0 : 1)
+                .description("1 while the Elasticsearch circuit breaker is open or half-open")
+                .register(meterRegistry);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Runs {@code primary} unless the breaker is open. When it is open or the call fails, {@code fallback}
+     * answers instead; a {@code null} from the fallback means it can't.
+     *
+     * @throws SearchUnavailableException when neither can answer
+     */
+    public <T> T call(Supplier<T> primary, Supplier<T> fallback) {
+        if (!enabled) {
+            return primary.get();
+        }
+        boolean probe = false;
+        if (state.get() != State.CLOSED) {
+            if (!tryProbe()) {
+                return fallback(fallback, null);
+            }
+            probe = true;
+        }
+
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = primary.get();
+        } catch (RuntimeException e) {
+            return complete(null, e, start, probe, fallback);
+        }
+        return complete(result, null, start, probe, fallback);
+    }
+
+    /**
+     * Async form of {@link #call}. The call counts once {@code primary}'s future completes, and a failed one is
+     * answered by {@code fallback} on the thread that completed it.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> primary, Supplier<T> fallback) {
+        if (!enabled) {
+            return primary.get();
+        }
+        boolean probe = false;
+        if (state.get() != State.CLOSED) {
+            if (!tryProbe()) {
+                return CompletableFuture.completedFuture(fallback(fallback, null));
+            }
+            probe = true;
+        }
+
+        boolean probing = probe;
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = primary.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.handle((value, failure) -> complete(value, failure == null ? null : unwrap(failure), start,
+                probing, fallback));
+    }
+
+    private <T> T complete(T result, RuntimeException failure, long start, boolean probe, Supplier<T> fallback) {
+        if (failure instanceof IllegalArgumentException || failure instanceof SearchOverloadedException) {
+            // A bad request, or one shed before it reached the backend, says nothing about the backend:
+            // stay half-open and let the next call probe.
+            if (probe) {
+                probeInFlight.set(false);
+            }
+            throw failure;
+        }
+        if (failure != null) {
+            onFailure(failure, probe);
+            return fallback(fallback, failure);
+        }
+
+        if (System.nanoTime() - start > slowCallNanos) {
+            onFailure(null, probe);
+        } else {
+            onSuccess(probe);
+        }
+        return result;
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    // Once open-duration has passed the breaker goes half-open, and one caller at a time gets to probe.
+    private boolean tryProbe() {
+        if (state.get() == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return state.get() == State.HALF_OPEN && probeInFlight.compareAndSet(false, true);
+    }
+
+    private void onSuccess(boolean probe) {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Search circuit breaker closed, Elasticsearch is answering again");
+        }
+        if (probe) {
+            probeInFlight.set(false);
+        }
+    }
+
+    private void onFailure(RuntimeException e, boolean probe) {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.nanoTime();
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                log.warn("Search circuit breaker opened after {} failures, serving from the local engine: {}",
+                        consecutiveFailures.get(), e == null ? "slow calls" : e.getMessage());
+            }
+        }
+        if (probe) {
+            probeInFlight.set(false);
+        }
+    }
+
+    private <T> T fallback(Supplier<T> fallback, RuntimeException cause) {
+        T result = fallback.get();
+        if (result == null) {
+            throw new SearchUnavailableException(cause);
+        }
+        fallbacks.increment();
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.courses.courses.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The "now" that default searches filter upcoming sessions against, rounded down to
+ * {@code courses.search.now-rounding}. Every search path reads it from here, so the Elasticsearch query, the
+ * materialized results and the local engines agree on the same instant within a bucket.
+ */
+@Component
+public class SearchClock {
+
+    private final Clock clock;
+    private final long roundingMillis;
+
+    @Autowired
+    public SearchClock(@Value("${courses.search.now-rounding:MINUTES}") ChronoUnit rounding) {
+        this(Clock.systemUTC(), rounding);
+    }
+
+    public SearchClock(Clock clock, ChronoUnit rounding) {
+        // Coarser units don't divide evenly into epoch days, so buckets would not start on a unit boundary.
+        if (rounding.getDuration().compareTo(ChronoUnit.DAYS.getDuration()) > 0) {
+            throw new IllegalArgumentException("courses.search.now-rounding must be DAYS or finer: " + rounding);
+        }
+        this.clock = clock;
+        this.roundingMillis = Math.max(1, rounding.getDuration().toMillis());
+    }
+
+    public long nowMillis() {
+        long now = clock.millis();
+        return now - now % roundingMillis;
+    }
+
+    public Instant now() {
+        return Instant.ofEpochMilli(nowMillis());
+    }
+}
@@ -0,0 +1,222 @@
+package com.courses.courses.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive cap on concurrent Elasticsearch calls (gradient algorithm): the limit shrinks while round-trips are
+ * slower than their long-term average and grows while they hold steady, so queueing happens here instead of
+ * inside Elasticsearch. Calls over the limit wait in a bounded FIFO queue. A call is shed on arrival when the
+ * queue is full or its expected wait exceeds {@code max-wait}, and gives up once it has waited that long.
+ */
+@Component
+public class SearchConcurrencyLimiter {
+
+    private static final double LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double estimatedLimit;
+    private double longRttNanos;
+    private int inFlight;
+    private int waiting;
+
+    private final Counter shed;
+    private final Counter timedOut;
+
+    public SearchConcurrencyLimiter(@Value("${courses.search.limiter.enabled:true}") boolean enabled,
+                                    @Value("${courses.search.limiter.initial-limit:20}") int initialLimit,
+                                    @Value("${courses.search.limiter.min-limit:4}") int minLimit,
+                                    @Value("${courses.search.limiter.max-limit:100}") int maxLimit,
+                                    @Value("${courses.search.limiter.max-queue:100}") int maxQueue,
+                                    @Value("${courses.search.limiter.max-wait:200ms}") Duration maxWait,
+                                    @Value("${courses.search.limiter.retry-after:1s}") Duration retryAfter,
+                                    MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        this.shed = rejectedCounter(meterRegistry, "shed");
+        this.timedOut = rejectedCounter(meterRegistry, "timed_out");
+        Gauge.builder("search.limiter.limit", this, SearchConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent Elasticsearch calls")
+                .register(meterRegistry);
+        Gauge.builder("search.limiter.in_flight", this, SearchConcurrencyLimiter::getInFlight)
+                .description("Elasticsearch calls currently running")
+                .register(meterRegistry);
+        Gauge.builder("search.limiter.queued", this, SearchConcurrencyLimiter::getWaiting)
+                .description("Searches waiting for a free slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} once a slot is free and feeds its round-trip time back into the limit.
+     *
+     * @throws SearchOverloadedException when the call is shed or waits longer than {@code max-wait}
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        acquire();
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Async form of {@link #call}: the slot is held until the future completes. Waiting for a slot still happens
+     * on the calling thread, for at most {@code max-wait}.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        acquire();
+        long start = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            release(System.nanoTime() - start);
+            throw e;
+        }
+        return result.whenComplete((value, failure) -> release(System.nanoTime() - start));
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            // Newcomers queue behind existing waiters instead of taking a slot that was just freed for them.
+            if (waiting == 0 && inFlight < (int) estimatedLimit) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= maxQueue) {
+                throw shed("Search queue is full");
+            }
+            if (longRttNanos > 0 && (waiting + 1) * longRttNanos / estimatedLimit > maxWaitNanos) {
+                throw shed("Search queue wait would exceed the limit");
+            }
+
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) estimatedLimit) {
+                    if (remaining <= 0) {
+                        timedOut.increment();
+                        throw new SearchOverloadedException("Timed out waiting for a search slot", true, retryAfter);
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SearchOverloadedException("Interrupted waiting for a search slot", true, retryAfter);
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long rttNanos) {
+        lock.lock();
+        try {
+            int before = (int) estimatedLimit;
+            updateLimit(rttNanos);
+            inFlight--;
+            if ((int) estimatedLimit > before) {
+                permitReleased.signalAll();
+            } else {
+                permitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLimit(long rttNanos) {
+        double rtt = Math.max(rttNanos, 1);
+        longRttNanos = longRttNanos == 0 ? rtt : longRttNanos + (rtt - longRttNanos) / LONG_WINDOW;
+        // The long-term average lags after latency drops for good; pull it down so the limit can recover.
+        if (longRttNanos / rtt > 2) {
+            longRttNanos *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        // Well under the limit, steady latency says nothing about how much more it could take.
+        if (newLimit > estimatedLimit && inFlight < estimatedLimit / 2) {
+            return;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private SearchOverloadedException shed(String message) {
+        shed.increment();
+        return new SearchOverloadedException(message, false, retryAfter);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("search.limiter.rejected")
+                .description("Searches rejected by the concurrency limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
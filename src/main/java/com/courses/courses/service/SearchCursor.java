@@ -0,0 +1,72 @@
+package com.courses.courses.service;
+
+import com.courses.courses.dto.SearchRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * State of a point-in-time + {@code search_after} scan, carried to the client as an opaque
+ * URL-safe token.
+ */
+public record SearchCursor(String pointInTimeId, SearchRequest.SortOption sort, List<Object> searchAfter) {
+
+    // Passed as the cursor to start a new scan, like Solr's cursorMark=*.
+    public static final String START = "*";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public String encode() {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("pit", pointInTimeId);
+        node.put("sort", sort.name());
+        ArrayNode after = node.putArray("after");
+        for (Object value : searchAfter) {
+            after.addPOJO(value);
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            JsonNode node = MAPPER.readTree(Base64.getUrlDecoder().decode(token));
+            List<Object> searchAfter = new ArrayList<>();
+            for (JsonNode value : node.path("after")) {
+                searchAfter.add(toSortValue(value));
+            }
+            return new SearchCursor(
+                    node.get("pit").asText(),
+                    SearchRequest.SortOption.valueOf(node.get("sort").asText()),
+                    searchAfter);
+        } catch (IOException | IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+
+    // JSON loses the Long/Integer distinction; Elasticsearch sort values are longs, doubles or strings.
+    private static Object toSortValue(JsonNode value) {
+        if (value.isIntegralNumber()) {
+            return value.asLong();
+        }
+        if (value.isFloatingPointNumber()) {
+            return value.asDouble();
+        }
+        if (value.isBoolean()) {
+            return value.asBoolean();
+        }
+        if (value.isNull()) {
+            return null;
+        }
+        return value.asText();
+    }
+}
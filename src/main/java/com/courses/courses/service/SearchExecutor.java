@@ -0,0 +1,45 @@
+package com.courses.courses.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Decides how search work runs. In {@code BLOCKING} mode it runs on the calling servlet thread and the
+ * returned future is already complete. In {@code ASYNC} mode the Elasticsearch call goes out through
+ * {@code ElasticsearchAsyncClient}, the servlet thread is released, and the future completes when the response
+ * arrives; the concurrency limiter still caps how many calls are in flight.
+ */
+@Slf4j
+@Component
+public class SearchExecutor {
+
+    public enum ExecutionMode {
+        BLOCKING, ASYNC
+    }
+
+    private final ExecutionMode mode;
+
+    public SearchExecutor(@Value("${courses.search.execution-mode:BLOCKING}") ExecutionMode mode) {
+        this.mode = mode;
+        log.info("Search execution mode: {}", mode);
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Runs {@code blocking} in {@code BLOCKING} mode and {@code async} in {@code ASYNC} mode; Spring MVC completes
+     * the request from the returned future either way.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<T> blocking, Supplier<CompletableFuture<T>> async) {
+        if (mode == ExecutionMode.ASYNC) {
+            return async.get();
+        }
+        return CompletableFuture.completedFuture(blocking.get());
+    }
+}
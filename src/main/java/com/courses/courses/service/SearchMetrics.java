@@ -0,0 +1,96 @@
+package com.courses.courses.service;
+
+import com.courses.courses.dto.SearchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage latency of the search endpoints as {@code search.stage} timers tagged by endpoint, stage,
+ * sort option and a coarse filter class, plus a slow-query log of normalized requests. The timers publish
+ * histogram buckets only; percentiles are computed from them at query time, so they can be aggregated
+ * across instances.
+ */
+@Component
+public class SearchMetrics {
+
+    public static final String REQUEST_ATTRIBUTE = SearchMetrics.class.getName() + ".request";
+
+    public static final String STAGE_BIND = "bind";
+    public static final String STAGE_BUILD_QUERY = "build_query";
+    public static final String STAGE_ES_ROUND_TRIP = "es_round_trip";
+    public static final String STAGE_ES_TOOK = "es_took";
+    public static final String STAGE_MAP_HITS = "map_hits";
+    public static final String STAGE_SERIALIZE = "serialize";
+    public static final String STAGE_TOTAL = "total";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("com.courses.courses.slowlog");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter slowQueries;
+    private final Duration slowQueryThreshold;
+
+    public SearchMetrics(MeterRegistry meterRegistry,
+                         @Value("${courses.search.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.slowQueries = Counter.builder("search.slow")
+                .description("Searches slower than courses.search.slow-query-threshold")
+                .register(meterRegistry);
+    }
+
+    public void record(String endpoint, String stage, SearchRequest request, long nanos) {
+        String sort = request == null || request.getSort() == null ? "none" : request.getSort().name();
+        String filters = request == null ? "none" : filterClass(request);
+
+        timers.computeIfAbsent(endpoint + '|' + stage + '|' + sort + '|' + filters, key -> Timer.builder("search.stage")
+                        .description("Time spent per search stage")
+                        .tag("endpoint", endpoint)
+                        .tag("stage", stage)
+                        .tag("sort", sort)
+                        .tag("filters", filters)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTotal(String endpoint, SearchRequest request, long nanos) {
+        record(endpoint, STAGE_TOTAL, request, nanos);
+
+        if (request != null && nanos >= slowQueryThreshold.toNanos()) {
+            slowQueries.increment();
+            slowLog.warn("Slow {} took {} ms: {}", endpoint, TimeUnit.NANOSECONDS.toMillis(nanos),
+                    SearchCacheKey.of(request));
+        }
+    }
+
+    /**
+     * {@code none}, {@code text}, {@code filtered} or {@code text+filtered}: whether the search has a text query
+     * and whether it has any structured filter. Kept this coarse so each timer has a handful of series.
+     */
+    public static String filterClass(SearchRequest request) {
+        boolean text = request.getQ() != null && !request.getQ().trim().isEmpty();
+        boolean filtered = request.getMinAge() != null || request.getMaxAge() != null
+                || (request.getCategory() != null && !request.getCategory().trim().isEmpty())
+                || request.getType() != null
+                || request.getMinPrice() != null || request.getMaxPrice() != null
+                || request.getStartDate() != null;
+        if (text && filtered) {
+            return "text+filtered";
+        }
+        if (text) {
+            return "text";
+        }
+        return filtered ? "filtered" : "none";
+    }
+}
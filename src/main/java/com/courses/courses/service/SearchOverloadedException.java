@@ -0,0 +1,32 @@
+package com.courses.courses.service;
+
+import java.time.Duration;
+
+/**
+ * The concurrency limiter shed a search because Elasticsearch is already at its adaptive limit, either right
+ * away or after waiting in the queue for as long as allowed.
+ */
+public class SearchOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean timedOut;
+    private final Duration retryAfter;
+
+    public SearchOverloadedException(String message, boolean timedOut, Duration retryAfter) {
+        super(message);
+        this.timedOut = timedOut;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * {@code true} if the search waited in the queue and gave up, {@code false} if it was shed on arrival.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,208 @@
+package com.courses.courses.service;
+
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded (W-TinyLFU) cache of search results keyed on the normalized request.
+ * Concurrent misses for the same key wait on a single backend call. A new index clears the cache at once;
+ * single-course writes clear it at most once per {@code change-debounce}, so a steady trickle of writes
+ * doesn't keep it empty.
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, SearchResponse> cache;
+    private final boolean enabled;
+
+    // Bumped on every index change so loads that started before the change can't repopulate the cache.
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<Key, CompletableFuture<SearchResponse>> loading = new ConcurrentHashMap<>();
+
+    private final long changeDebounceNanos;
+    private volatile boolean changePending;
+    private volatile long lastChangeInvalidation;
+
+    public SearchResultCache(@Value("${courses.search.cache.enabled:true}") boolean enabled,
+                             @Value("${courses.search.cache.max-size:10000}") long maxSize,
+                             @Value("${courses.search.cache.ttl:30s}") Duration ttl,
+                             @Value("${courses.search.cache.change-debounce:5s}") Duration changeDebounce,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.changeDebounceNanos = changeDebounce.toNanos();
+        this.lastChangeInvalidation = System.nanoTime() - changeDebounceNanos;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search.results");
+    }
+
+    public SearchResponse get(SearchRequest request, Function<SearchRequest, SearchResponse> loader) {
+        if (!enabled) {
+            return loader.apply(request);
+        }
+        invalidateIfDue();
+        Key key = new Key(generation.get(), SearchCacheKey.of(request));
+        return cache.get(key, k -> loader.apply(request));
+    }
+
+    /**
+     * Async form of {@link #get}. Concurrent misses for the same key share one {@code loader} future.
+     */
+    public CompletableFuture<SearchResponse> getAsync(SearchRequest request,
+                                                      Function<SearchRequest, CompletableFuture<SearchResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(request);
+        }
+        invalidateIfDue();
+        Key key = new Key(generation.get(), SearchCacheKey.of(request));
+        SearchResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<SearchResponse> result = new CompletableFuture<>();
+        CompletableFuture<SearchResponse> existing = loading.putIfAbsent(key, result);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<SearchResponse> loaded;
+        try {
+            loaded = loader.apply(request);
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((response, failure) -> {
+            if (failure == null) {
+                cache.put(key, response);
+            }
+            loading.remove(key, result);
+            if (failure == null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Bulk form of {@link #get}: cached entries are answered directly and all misses go to {@code loader} in one
+     * call. The loader returns one response per miss, in order; a {@code null} marks a failed entry and is not cached.
+     */
+    public List<SearchResponse> getAll(List<SearchRequest> requests,
+                                       Function<List<SearchRequest>, List<SearchResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(requests);
+        }
+
+        Lookup lookup = lookup(requests);
+        if (lookup.misses().isEmpty()) {
+            return lookup.responses();
+        }
+        return fill(lookup, loader.apply(lookup.misses()));
+    }
+
+    /**
+     * Async form of {@link #getAll}.
+     */
+    public CompletableFuture<List<SearchResponse>> getAllAsync(
+            List<SearchRequest> requests, Function<List<SearchRequest>, CompletableFuture<List<SearchResponse>>> loader) {
+        if (!enabled) {
+            return loader.apply(requests);
+        }
+
+        Lookup lookup = lookup(requests);
+        if (lookup.misses().isEmpty()) {
+            return CompletableFuture.completedFuture(lookup.responses());
+        }
+        return loader.apply(lookup.misses()).thenApply(loaded -> fill(lookup, loaded));
+    }
+
+    private Lookup lookup(List<SearchRequest> requests) {
+        invalidateIfDue();
+        long currentGeneration = generation.get();
+        List<SearchResponse> responses = new ArrayList<>(requests.size());
+        List<Integer> missing = new ArrayList<>();
+        List<SearchRequest> misses = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SearchResponse cached = cache.getIfPresent(new Key(currentGeneration, SearchCacheKey.of(requests.get(i))));
+            responses.add(cached);
+            if (cached == null) {
+                missing.add(i);
+                misses.add(requests.get(i));
+            }
+        }
+        return new Lookup(currentGeneration, responses, missing, misses);
+    }
+
+    private List<SearchResponse> fill(Lookup lookup, List<SearchResponse> loaded) {
+        List<SearchRequest> misses = lookup.misses();
+        for (int j = 0; j < misses.size(); j++) {
+            SearchResponse response = loaded.get(j);
+            lookup.responses().set(lookup.missing().get(j), response);
+            if (response != null) {
+                // Keyed on the generation the lookup started in, so a load that raced an index change is never served.
+                cache.put(new Key(lookup.generation(), SearchCacheKey.of(misses.get(j))), response);
+            }
+        }
+        return lookup.responses();
+    }
+
+    @EventListener
+    public void onIndexChanged(CourseIndexChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        log.debug("Search result cache cleared after {} on {}", event.reason(), event.indexName());
+    }
+
+    @EventListener
+    public void onDocumentsChanged(CourseDocumentsChangedEvent event) {
+        changePending = true;
+        invalidateIfDue();
+    }
+
+    // Checked on every lookup too, so the last change of a burst is picked up once the debounce has passed.
+    private void invalidateIfDue() {
+        if (!changePending) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (!changePending || now - lastChangeInvalidation < changeDebounceNanos) {
+                return;
+            }
+            changePending = false;
+            lastChangeInvalidation = now;
+        }
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private record Key(long generation, SearchCacheKey request) {
+    }
+
+    private record Lookup(long generation, List<SearchResponse> responses, List<Integer> missing,
+                          List<SearchRequest> misses) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.courses.courses.service;
+
+/**
+ * Elasticsearch could not answer and no local fallback was available.
+ */
+public class SearchUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SearchUnavailableException(Throwable cause) {
+        super("Search backend unavailable", cause);
+    }
+}
@@ -0,0 +1,195 @@
+package com.courses.courses.service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a query corpus against an index before it takes traffic, so the first user searches don't pay for
+ * cold Elasticsearch caches or a cold JIT. The corpus is a fixed file plus the searches users have been running:
+ * the most frequent ones are kept while the app runs and saved on shutdown for the next start.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class SearchWarmer {
+
+    private static final TypeReference<List<SearchRequest>> REQUEST_LIST = new TypeReference<>() {};
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final CourseQueryBuilder courseQueryBuilder;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Resource corpus;
+    private final Path recordingPath;
+    private final int rounds;
+    private final Duration maxDuration;
+
+    // Frequency-based eviction keeps the searches users repeat most.
+    private final Cache<SearchCacheKey, SearchRequest> recorded;
+
+    @Value("${courses.search.request-cache:true}")
+    private boolean requestCache;
+
+    public SearchWarmer(ElasticsearchOperations elasticsearchOperations, CourseQueryBuilder courseQueryBuilder,
+                        ObjectMapper objectMapper,
+                        @Value("${courses.warmup.enabled:true}") boolean enabled,
+                        @Value("${courses.warmup.corpus:classpath:warmup-queries.json}") Resource corpus,
+                        @Value("${courses.warmup.recording-path:data/warmup-recording.json}") Path recordingPath,
+                        @Value("${courses.warmup.recorded-max:200}") int recordedMax,
+                        @Value("${courses.warmup.rounds:3}") int rounds,
+                        @Value("${courses.warmup.max-duration:30s}") Duration maxDuration) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.courseQueryBuilder = courseQueryBuilder;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.corpus = corpus;
+        this.recordingPath = recordingPath;
+        this.rounds = rounds;
+        this.maxDuration = maxDuration;
+        this.recorded = Caffeine.newBuilder()
+                .maximumSize(recordedMax)
+                .build();
+        loadRecording();
+    }
+
+    /**
+     * Remembers a search users ran, to be replayed by later warm-ups. Cursor pages are skipped; their
+     * point-in-time is gone by the next warm-up.
+     */
+    public void record(SearchRequest request) {
+        if (enabled && (request.getCursor() == null || request.getCursor().isEmpty())) {
+            recorded.put(SearchCacheKey.of(request), request);
+        }
+    }
+
+    /**
+     * Replays the corpus and the recorded searches against {@code indexName} for the configured number of rounds,
+     * stopping early once {@code max-duration} has passed. Failing searches are logged and skipped.
+     *
+     * @return the number of searches run
+     */
+    public int warmUp(String indexName) {
+        if (!enabled) {
+            return 0;
+        }
+
+        List<SearchRequest> requests = new ArrayList<>(loadCorpus());
+        requests.addAll(recorded.asMap().values());
+        IndexCoordinates index = IndexCoordinates.of(indexName);
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int replayed = 0;
+        int failed = 0;
+
+        for (int round = 0; round < rounds && System.nanoTime() < deadline; round++) {
+            for (SearchRequest request : requests) {
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+                try {
+                    elasticsearchOperations.search(toQuery(request), CourseDocument.class, index);
+                    replayed++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.debug("Warm-up search failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        log.info("Warmed up {} with {} searches ({} distinct, {} failed) in {} ms", indexName, replayed,
+                requests.size(), failed, (System.nanoTime() - start) / 1_000_000);
+        return replayed;
+    }
+
+    // Same request shape as a live search, so the same caches and code paths get warmed.
+    private NativeQuery toQuery(SearchRequest request) {
+        NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                .withSort(courseQueryBuilder.buildSort(request.getSort()))
+                .withPageable(PageRequest.of(request.getPage(), request.getSize()))
+                .withSourceFilter(courseQueryBuilder.buildSourceFilter(request))
+                .withRequestCache(requestCache);
+        if (!request.isFacets()) {
+            return queryBuilder.withQuery(courseQueryBuilder.buildSearchQuery(request)).build();
+        }
+
+        queryBuilder.withQuery(courseQueryBuilder.buildFacetedQuery(request));
+        Query postFilter = courseQueryBuilder.buildPostFilter(request);
+        if (postFilter != null) {
+            queryBuilder.withFilter(postFilter);
+        }
+        courseQueryBuilder.buildFacetAggregations(request).forEach(queryBuilder::withAggregation);
+        return queryBuilder.build();
+    }
+
+    private List<SearchRequest> loadCorpus() {
+        if (!corpus.exists()) {
+            return List.of();
+        }
+        try (InputStream in = corpus.getInputStream()) {
+            return objectMapper.readValue(in, REQUEST_LIST).stream()
+                    .filter(request -> request.getCursor() == null || request.getCursor().isEmpty())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not read warm-up corpus {}: {}", corpus, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void loadRecording() {
+        if (!enabled || !Files.exists(recordingPath)) {
+            return;
+        }
+        try {
+            objectMapper.readValue(recordingPath.toFile(), REQUEST_LIST).forEach(this::record);
+        } catch (IOException e) {
+            log.warn("Could not read recorded warm-up searches from {}: {}", recordingPath, e.getMessage());
+        }
+    }
+
+    // Written next to the target and moved into place, so a crash mid-write keeps the previous recording.
+    @PreDestroy
+    public void saveRecording() {
+        if (!enabled || recorded.estimatedSize() == 0) {
+            return;
+        }
+        try {
+            Path parent = recordingPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, recordingPath.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(tmp.toFile(), List.copyOf(recorded.asMap().values()));
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, recordingPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save recorded warm-up searches to {}: {}", recordingPath, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.courses.courses.service;
+
+import com.courses.courses.document.CourseDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves autocomplete from an in-memory {@link SuggestionIndex} built from the titles in the {@link CourseCatalog}
+ * snapshot. The index is rebuilt whenever the catalog changes and swapped in with a single volatile write.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class SuggestionEngine {
+
+    private volatile SuggestionIndex index;
+
+    @Value("${courses.suggest.local.enabled:true}")
+    private boolean enabled;
+
+    @Value("${courses.suggest.local.fuzzy:true}")
+    private boolean fuzzy;
+
+    @Value("${courses.suggest.local.top-k:10}")
+    private int topK;
+
+    /**
+     * @return suggestions, or {@code null} when the in-memory index is not available yet
+     */
+    public List<String> suggest(String prefix, int limit) {
+        SuggestionIndex current = index;
+        if (!enabled || current == null) {
+            return null;
+        }
+        return current.suggest(prefix, limit, fuzzy);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild(event.courses());
+        } catch (RuntimeException e) {
+            log.warn("Suggestion index rebuild failed, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    void rebuild(List<CourseDocument> courses) {
+        long start = System.nanoTime();
+
+        // Titles shared by several courses (repeated sessions, partner copies) rank higher.
+        Map<String, Integer> weightedTitles = new HashMap<>();
+        for (CourseDocument course : courses) {
+            if (course.getTitle() != null) {
+                weightedTitles.merge(course.getTitle(), 1, Integer::sum);
+            }
+        }
+
+        index = SuggestionIndex.build(weightedTitles, topK);
+        log.info("Suggestion index rebuilt with {} titles in {} ms",
+                weightedTitles.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,251 @@
+package com.courses.courses.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie over every word-suffix of the course titles ("introduction to algebra",
+ * "to algebra", "algebra"), flattened into parallel arrays. Each node stores the ids of its
+ * {@code topK} heaviest titles, so a prefix lookup is a walk down the trie plus a copy.
+ */
+public final class SuggestionIndex {
+
+    private static final int MIN_FUZZY_PREFIX = 3;
+
+    private final String[] titles;
+    private final int[] weights;
+    private final int topK;
+
+    // Node i has children firstChild[i] .. firstChild[i] + childCount[i] - 1, sorted by label.
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[][] topTitles;
+
+    private SuggestionIndex(String[] titles, int[] weights, int topK, char[] labels, int[] firstChild,
+                            int[] childCount, int[][] topTitles) {
+        this.titles = titles;
+        this.weights = weights;
+        this.topK = topK;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topTitles = topTitles;
+    }
+
+    /**
+     * @param weightedTitles title to popularity weight; heavier titles are suggested first
+     */
+    public static SuggestionIndex build(Map<String, Integer> weightedTitles, int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+        String[] titles = weightedTitles.keySet().toArray(String[]::new);
+        Arrays.sort(titles);
+        int[] weights = new int[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            weights[i] = weightedTitles.get(titles[i]);
+        }
+
+        BuildNode root = new BuildNode();
+        int nodeCount = 1;
+        for (int id = 0; id < titles.length; id++) {
+            String normalized = normalize(titles[id]);
+            for (int start = 0; start < normalized.length(); start++) {
+                if (start > 0 && normalized.charAt(start - 1) != ' ') {
+                    continue;
+                }
+                BuildNode node = root;
+                for (int i = start; i < normalized.length(); i++) {
+                    char c = normalized.charAt(i);
+                    BuildNode child = node.children.get(c);
+                    if (child == null) {
+                        child = new BuildNode();
+                        node.children.put(c, child);
+                        nodeCount++;
+                    }
+                    node = child;
+                    node.offer(id, weights, topK);
+                }
+            }
+        }
+
+        char[] labels = new char[nodeCount];
+        int[] firstChild = new int[nodeCount];
+        int[] childCount = new int[nodeCount];
+        int[][] topTitles = new int[nodeCount][];
+
+        // Breadth-first numbering keeps every node's children contiguous.
+        List<BuildNode> queue = new ArrayList<>(nodeCount);
+        queue.add(root);
+        int next = 1;
+        for (int i = 0; i < queue.size(); i++) {
+            BuildNode node = queue.get(i);
+            topTitles[i] = node.topIds();
+            firstChild[i] = next;
+            childCount[i] = node.children.size();
+            for (Map.Entry<Character, BuildNode> child : node.children.entrySet()) {
+                labels[next++] = child.getKey();
+                queue.add(child.getValue());
+            }
+        }
+
+        return new SuggestionIndex(titles, weights, topK, labels, firstChild, childCount, topTitles);
+    }
+
+    public int size() {
+        return titles.length;
+    }
+
+    /**
+     * Returns up to {@code limit} titles containing a word that starts with {@code prefix}, heaviest first.
+     * With {@code fuzzy} set and fewer exact hits than requested, prefixes within one edit of
+     * {@code prefix} fill the remaining slots.
+     */
+    public List<String> suggest(String prefix, int limit, boolean fuzzy) {
+        String normalized = normalize(prefix);
+        int max = Math.min(limit, topK);
+        if (normalized.isEmpty() || max <= 0) {
+            return List.of();
+        }
+
+        List<String> result = new ArrayList<>(max);
+        BitSet seen = new BitSet(titles.length);
+
+        int node = find(normalized);
+        if (node >= 0) {
+            collect(topTitles[node], seen, result, max);
+        }
+
+        if (fuzzy && result.size() < max && normalized.length() >= MIN_FUZZY_PREFIX) {
+            BitSet fuzzyMatches = new BitSet(titles.length);
+            walkWithOneEdit(0, normalized, 0, true, fuzzyMatches);
+            fuzzyMatches.andNot(seen);
+
+            int[] candidates = fuzzyMatches.stream().boxed()
+                    .sorted((a, b) -> Integer.compare(weights[b], weights[a]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            collect(candidates, seen, result, max);
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private void collect(int[] ids, BitSet seen, List<String> result, int max) {
+        for (int id : ids) {
+            if (result.size() >= max) {
+                return;
+            }
+            if (!seen.get(id)) {
+                seen.set(id);
+                result.add(titles[id]);
+            }
+        }
+    }
+
+    private int find(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        int from = firstChild[node];
+        int idx = Arrays.binarySearch(labels, from, from + childCount[node], c);
+        return idx >= 0 ? idx : -1;
+    }
+
+    // Levenshtein distance <= 1 between the query and some trie prefix: substitution, insertion or deletion.
+    private void walkWithOneEdit(int node, String query, int pos, boolean editLeft, BitSet matches) {
+        if (pos == query.length()) {
+            for (int id : topTitles[node]) {
+                matches.set(id);
+            }
+            if (!editLeft) {
+                return;
+            }
+        }
+
+        if (pos < query.length()) {
+            int exact = child(node, query.charAt(pos));
+            if (exact >= 0) {
+                walkWithOneEdit(exact, query, pos + 1, editLeft, matches);
+            }
+        }
+        if (!editLeft) {
+            return;
+        }
+
+        if (pos < query.length()) {
+            // Extra character in the query.
+            walkWithOneEdit(node, query, pos + 1, false, matches);
+        }
+        int from = firstChild[node];
+        for (int c = from; c < from + childCount[node]; c++) {
+            if (pos < query.length() && labels[c] != query.charAt(pos)) {
+                walkWithOneEdit(c, query, pos + 1, false, matches);
+            }
+            // Character missing from the query.
+            walkWithOneEdit(c, query, pos, false, matches);
+        }
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private int[] top = new int[0];
+
+        void offer(int id, int[] weights, int topK) {
+            for (int existing : top) {
+                if (existing == id) {
+                    return;
+                }
+            }
+            if (top.length == topK && weights[top[topK - 1]] >= weights[id]) {
+                return;
+            }
+
+            int size = Math.min(top.length + 1, topK);
+            int[] merged = new int[size];
+            int i = 0;
+            int out = 0;
+            boolean placed = false;
+            while (out < size) {
+                if (!placed && (i >= top.length || weights[id] > weights[top[i]])) {
+                    merged[out++] = id;
+                    placed = true;
+                } else {
+                    merged[out++] = top[i++];
+                }
+            }
+            top = merged;
+        }
+
+        int[] topIds() {
+            return top;
+        }
+    }
+}
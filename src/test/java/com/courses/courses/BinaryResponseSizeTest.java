@@ -0,0 +1,54 @@
+package com.courses.courses;
+
+import com.courses.courses.config.BinaryJacksonHttpMessageConverter;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchResponse;
+import com.courses.courses.service.CourseJsonReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryResponseSizeTest {
+
+    private static final ObjectMapper JSON = new Jackson2ObjectMapperBuilder().build();
+
+    private static SearchResponse response;
+
+    @BeforeAll
+    static void loadSampleCourses() throws Exception {
+        List<CourseDocument> courses = new ArrayList<>();
+        try (InputStream in = BinaryResponseSizeTest.class.getResourceAsStream("/sample-courses.json")) {
+            new CourseJsonReader(JSON).readCourses(in, (course, size) -> courses.add(course));
+        }
+        response = new SearchResponse();
+        response.setCourses(courses);
+        response.setTotal(courses.size());
+        response.setSize(courses.size());
+        response.setTotalPages(1);
+    }
+
+    @Test
+    void testSmileBodyIsSmallerThanJson() throws Exception {
+        byte[] json = JSON.writeValueAsBytes(response);
+        byte[] smile = BinaryJacksonHttpMessageConverter.smileMapper(new Jackson2ObjectMapperBuilder())
+                .writeValueAsBytes(response);
+
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    void testCborBodyIsSmallerThanJson() throws Exception {
+        byte[] json = JSON.writeValueAsBytes(response);
+        byte[] cbor = BinaryJacksonHttpMessageConverter.cborMapper(new Jackson2ObjectMapperBuilder())
+                .writeValueAsBytes(response);
+
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+}
@@ -0,0 +1,70 @@
+package com.courses.courses;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.service.CourseQueryBuilder;
+import com.courses.courses.service.SearchClock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseQueryBuilderTest {
+
+    // Fixed, so two calls in a test can't straddle a rounding bucket.
+    private final CourseQueryBuilder queryBuilder = new CourseQueryBuilder(new SearchClock(
+            Clock.fixed(Instant.parse("2025-07-01T10:15:30Z"), ZoneOffset.UTC), ChronoUnit.HOURS));
+
+    @Test
+    void testConstantClausesAreBuiltOnce() {
+        assertThat(queryBuilder.buildSort(SearchRequest.SortOption.PRICE_ASC))
+                .isSameAs(queryBuilder.buildSort(SearchRequest.SortOption.PRICE_ASC));
+        assertThat(queryBuilder.buildSearchQuery(new SearchRequest()))
+                .isSameAs(queryBuilder.buildSearchQuery(new SearchRequest()));
+
+        SearchRequest first = new SearchRequest();
+        first.setType(CourseDocument.CourseType.CLUB);
+        first.setCategory("Math");
+        SearchRequest second = new SearchRequest();
+        second.setType(CourseDocument.CourseType.CLUB);
+        second.setCategory("Math");
+        Query firstQuery = queryBuilder.buildSearchQuery(first);
+        Query secondQuery = queryBuilder.buildSearchQuery(second);
+
+        assertThat(firstQuery).isNotSameAs(secondQuery);
+        for (int i = 0; i < firstQuery.bool().filter().size(); i++) {
+            assertThat(firstQuery.bool().filter().get(i)).isSameAs(secondQuery.bool().filter().get(i));
+        }
+    }
+
+    @Test
+    void testDefaultDateFilterStartsAtRoundedNow() {
+        Query query = queryBuilder.buildSearchQuery(new SearchRequest());
+
+        assertThat(query.bool().filter()).singleElement()
+                .satisfies(q -> assertThat(q.range().gte().to(String.class)).isEqualTo("2025-07-01T10:00:00Z"));
+    }
+
+    @Test
+    void testEveryFilterIsApplied() {
+        SearchRequest request = new SearchRequest();
+        request.setQ("algebra");
+        request.setMinAge(10);
+        request.setCategory("Math");
+        request.setType(CourseDocument.CourseType.COURSE);
+        request.setMinPrice(BigDecimal.TEN);
+        request.setStartDate(Instant.parse("2025-08-01T00:00:00Z"));
+
+        Query query = queryBuilder.buildSearchQuery(request);
+
+        assertThat(query.bool().must()).singleElement().satisfies(q -> assertThat(q.isMultiMatch()).isTrue());
+        assertThat(query.bool().filter()).hasSize(5);
+        assertThat(query.bool().filter().get(0).range().gte().to(String.class)).isEqualTo("2025-08-01T00:00:00Z");
+    }
+}
@@ -1,11 +1,24 @@
 package com.courses.courses;
 
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch.indices.IndexSegmentSort;
 import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.BatchSearchResult;
+import com.courses.courses.dto.ImportProgress;
 import com.courses.courses.dto.SearchRequest;
 import com.courses.courses.dto.SearchResponse;
+import com.courses.courses.service.CourseQueryBuilder;
 import com.courses.courses.service.CourseSearchService;
+import com.courses.courses.service.CourseWriteBuffer;
 import com.courses.courses.service.DataIndexingService;
+import com.courses.courses.service.MaterializedSearchResults;
+import com.courses.courses.service.SearchClock;
+import com.courses.courses.service.SearchCursor;
+import com.courses.courses.service.SearchWarmer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertySource;
@@ -13,10 +26,18 @@ import org.testcontainers.elasticsearch.ElasticsearchContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @SpringBootTest
 @Testcontainers
 class CourseSearchServiceTest {
@@ -26,9 +47,19 @@ class CourseSearchServiceTest {
             new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.11.0")
                     .withEnv("xpack.security.enabled", "false");
 
+    // Files the app persists go here instead of the working tree's data/ directory.
+    @TempDir
+    static Path dataDir;
+
     @DynamicPropertySource
     static void elasticsearchProperties(org.springframework.test.context.DynamicPropertyRegistry registry) {
         registry.add("spring.elasticsearch.uris", elasticsearchContainer::getHttpHostAddress);
+        // Writes in one test are searched for right away.
+        registry.add("courses.search.cache.change-debounce", () -> "0s");
+        registry.add("courses.warmup.recording-path", () -> dataDir.resolve("warmup-recording.json").toString());
+        registry.add("courses.import.root", () -> dataDir.resolve("imports").toString());
+        registry.add("courses.import.checkpoint-path", () -> dataDir.resolve("import-checkpoint.json").toString());
+        registry.add("courses.embedded.segment-path", () -> dataDir.resolve("courses.seg").toString());
     }
 
     @Autowired
@@ -37,6 +68,27 @@ class CourseSearchServiceTest {
     @Autowired
     private DataIndexingService dataIndexingService;
 
+    @Autowired
+    private CourseWriteBuffer courseWriteBuffer;
+
+    @Autowired
+    private MaterializedSearchResults materializedSearchResults;
+
+    @Autowired
+    private SearchWarmer searchWarmer;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private CourseQueryBuilder courseQueryBuilder;
+
+    @Autowired
+    private SearchClock searchClock;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @BeforeEach
     void setup() throws InterruptedException {
         dataIndexingService.reindexData();
@@ -121,11 +173,13 @@ class CourseSearchServiceTest {
     @Test
     void testDefaultFutureDateFilter() {
         SearchRequest req = new SearchRequest();
+        // The search filters against the rounded now, which can be up to a bucket behind the wall clock.
+        java.time.Instant now = searchClock.now();
 
         SearchResponse response = courseSearchService.searchCourses(req);
 
         assertThat(response.getCourses()).allSatisfy(c ->
-                assertThat(c.getNextSessionDate()).isAfterOrEqualTo(java.time.Instant.now())
+                assertThat(c.getNextSessionDate()).isAfterOrEqualTo(now)
         );
     }
 
@@ -140,6 +194,308 @@ class CourseSearchServiceTest {
                 assertThat(c.getNextSessionDate()).isAfterOrEqualTo(req.getStartDate())
         );
     }
+    @Test
+    void testCursorPaginationVisitsEveryCourseOnce() {
+        Set<String> seen = new HashSet<>();
+        long total = -1;
+        String cursor = SearchCursor.START;
+
+        while (cursor != null) {
+            SearchRequest req = new SearchRequest();
+            req.setStartDate(java.time.Instant.parse("2025-01-01T00:00:00Z"));
+            req.setSort(SearchRequest.SortOption.PRICE_ASC);
+            req.setSize(7);
+            req.setCursor(cursor);
+
+            SearchResponse response = courseSearchService.searchCourses(req);
+            total = response.getTotal();
+            response.getCourses().forEach(c -> assertThat(seen.add(c.getId())).isTrue());
+            cursor = response.getNextCursor();
+        }
+
+        assertThat(total).isGreaterThan(7);
+        assertThat(seen).hasSize((int) total);
+    }
+
+    @Test
+    void testIndexSortMatchesUpcomingSort() throws Exception {
+        // Early termination only applies when the whole query sort, tiebreaker included, is the index sort.
+        IndexSegmentSort indexSort = elasticsearchClient.indices().getSettings(g -> g.index("courses"))
+                .result().values().iterator().next()
+                .settings().index().sort();
+
+        List<String> upcoming = courseQueryBuilder.buildSort(SearchRequest.SortOption.UPCOMING).stream()
+                .map(SortOptions::field)
+                .map(f -> f.field())
+                .toList();
+        assertThat(indexSort.field()).isEqualTo(upcoming);
+    }
+
+    @Test
+    void testCardViewOnlyReturnsProjectedFields() throws Exception {
+        SearchRequest req = new SearchRequest();
+        req.setStartDate(java.time.Instant.parse("2025-01-01T00:00:00Z"));
+        req.setView(SearchRequest.View.CARD);
+
+        SearchResponse response = courseSearchService.searchCourses(req);
+
+        assertThat(response.getCourses()).isNotEmpty();
+        assertThat(response.getCourses()).allSatisfy(c -> {
+            assertThat(c.getTitle()).isNotNull();
+            assertThat(c.getPrice()).isNotNull();
+            assertThat(c.getDescription()).isNull();
+            assertThat(c.getCategory()).isNull();
+        });
+
+        // Cards leave out the fields that weren't fetched.
+        String json = objectMapper.writeValueAsString(response);
+        assertThat(json).contains("\"title\"").doesNotContain("\"description\"");
+    }
+
+    @Test
+    void testFacetsIgnoreTheirOwnSelection() {
+        SearchRequest req = new SearchRequest();
+        req.setStartDate(java.time.Instant.parse("2025-01-01T00:00:00Z"));
+        req.setCategory("Math");
+        req.setFacets(true);
+
+        SearchResponse response = courseSearchService.searchCourses(req);
+
+        assertThat(response.getCourses()).isNotEmpty();
+        assertThat(response.getCourses()).allSatisfy(c -> assertThat(c.getCategory()).isEqualTo("Math"));
+        assertThat(response.getFacets()).containsKeys("category", "type", "price", "age");
+        assertThat(response.getFacets().get("category")).hasSizeGreaterThan(1);
+        assertThat(response.getFacets().get("type"))
+                .allSatisfy(bucket -> assertThat(bucket.getCount()).isLessThanOrEqualTo(response.getTotal()));
+    }
+
+    @Test
+    void testMaterializedCategoryPageMatchesLiveSearch() throws InterruptedException {
+        for (int i = 0; i < 100 && materializedSearchResults.isStale(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(materializedSearchResults.isStale()).isFalse();
+
+        SearchRequest req = new SearchRequest();
+        req.setCategory("Math");
+        SearchResponse materialized = materializedSearchResults.find(req);
+
+        SearchRequest live = new SearchRequest();
+        live.setCategory("Math");
+        live.setQ("");
+        live.setFacets(true);
+        SearchResponse response = courseSearchService.searchCourses(live);
+
+        assertThat(materialized).isNotNull();
+        assertThat(materialized.getTotal()).isEqualTo(response.getTotal());
+        assertThat(materialized.getCourses()).extracting(CourseDocument::getId)
+                .containsExactlyElementsOf(response.getCourses().stream().map(CourseDocument::getId).toList());
+    }
+
+    @Test
+    void testAsyncSearchPaths() {
+        SearchRequest req = new SearchRequest();
+        req.setQ("algebra");
+        SearchRequest math = new SearchRequest();
+        math.setStartDate(java.time.Instant.parse("2025-01-01T00:00:00Z"));
+        math.setCategory("Math");
+        SearchRequest invalid = new SearchRequest();
+        invalid.setFields(List.of("noSuchField"));
+
+        SearchResponse response = courseSearchService.searchCoursesAsync(req).join();
+        List<BatchSearchResult> batch = courseSearchService.searchBatchAsync(List.of(math, invalid)).join();
+
+        assertThat(response.getTotal()).isGreaterThan(0);
+        assertThat(response.getCourses()).anyMatch(c -> c.getTitle().toLowerCase().contains("algebra"));
+        assertThat(batch.get(0).getResponse().getCourses()).isNotEmpty().allMatch(c -> "Math".equals(c.getCategory()));
+        assertThat(batch.get(1).getStatus()).isEqualTo(400);
+        assertThat(courseSearchService.getSuggestionsAsync("call").join()).isNotEmpty();
+    }
+
+    @Test
+    void testBatchSearchIsolatesFailingEntries() {
+        SearchRequest math = new SearchRequest();
+        math.setStartDate(java.time.Instant.parse("2025-01-01T00:00:00Z"));
+        math.setCategory("Math");
+
+        SearchRequest invalid = new SearchRequest();
+        invalid.setFields(List.of("noSuchField"));
+
+        SearchRequest cheapest = new SearchRequest();
+        cheapest.setStartDate(java.time.Instant.parse("2025-01-01T00:00:00Z"));
+        cheapest.setSort(SearchRequest.SortOption.PRICE_ASC);
+        cheapest.setSize(3);
+
+        List<BatchSearchResult> results = courseSearchService.searchBatch(List.of(math, invalid, cheapest));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getStatus()).isEqualTo(200);
+        assertThat(results.get(0).getResponse().getCourses())
+                .isNotEmpty()
+                .allSatisfy(c -> assertThat(c.getCategory()).isEqualTo("Math"));
+        assertThat(results.get(1).getStatus()).isEqualTo(400);
+        assertThat(results.get(1).getError()).contains("noSuchField");
+        assertThat(results.get(2).getResponse().getCourses())
+                .extracting(CourseDocument::getPrice)
+                .hasSize(3)
+                .isSorted();
+    }
+
+    @Test
+    void testPartialUpdateIgnoresOlderVersions() {
+        CourseDocument newer = new CourseDocument();
+        newer.setPrice(new BigDecimal("999.00"));
+        assertThat(courseWriteBuffer.patch("1", newer, Set.of("price"), 2)).isTrue();
+        courseWriteBuffer.flush();
+
+        CourseDocument older = new CourseDocument();
+        older.setPrice(new BigDecimal("1.00"));
+        assertThat(courseWriteBuffer.patch("1", older, Set.of("price"), 1)).isTrue();
+        courseWriteBuffer.flush();
+
+        SearchRequest req = new SearchRequest();
+        req.setStartDate(java.time.Instant.parse("2000-01-01T00:00:00Z"));
+        req.setMinPrice(new BigDecimal("999"));
+
+        SearchResponse response = courseSearchService.searchCourses(req);
+
+        assertThat(response.getCourses()).extracting(CourseDocument::getId).containsExactly("1");
+        assertThat(response.getCourses().get(0).getTitle()).isNotNull();
+    }
+
+    @Test
+    void testDeleteIsNotUndoneByOlderUpsert() {
+        assertThat(courseWriteBuffer.delete("1", 5)).isTrue();
+        courseWriteBuffer.flush();
+
+        CourseDocument stale = new CourseDocument();
+        stale.setTitle("Stale Copy");
+        stale.setCategory("Math");
+        stale.setType(CourseDocument.CourseType.COURSE);
+        stale.setPrice(new BigDecimal("10.00"));
+        stale.setNextSessionDate(java.time.Instant.parse("2030-01-01T10:00:00Z"));
+        assertThat(courseWriteBuffer.upsert("1", stale, 4)).isTrue();
+        courseWriteBuffer.flush();
+
+        SearchRequest req = new SearchRequest();
+        req.setStartDate(java.time.Instant.parse("2000-01-01T00:00:00Z"));
+        req.setSize(100);
+
+        SearchResponse response = courseSearchService.searchCourses(req);
+
+        assertThat(response.getCourses()).extracting(CourseDocument::getId).doesNotContain("1");
+        assertThat(response.getCourses()).extracting(CourseDocument::getTitle).doesNotContain("Stale Copy");
+
+        assertThat(courseWriteBuffer.upsert("1", stale, 6)).isTrue();
+        courseWriteBuffer.flush();
+
+        assertThat(courseSearchService.searchCourses(req).getCourses())
+                .extracting(CourseDocument::getId).contains("1");
+    }
+
+    @Test
+    void testDirectoryImportReplacesIndex() throws Exception {
+        Path dir = Files.createDirectories(dataDir.resolve("imports/replaces-index"));
+        Files.writeString(dir.resolve("a.ndjson"), """
+                {"id":"a1","title":"Imported Algebra","category":"Math","type":"COURSE","price":10.0,"nextSessionDate":"2030-01-01T10:00:00Z"}
+                {"id":"a2","title":"Imported Painting","category":"Art","type":"ONE_TIME","price":20.0,"nextSessionDate":"2030-01-02T10:00:00Z"}
+                """);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve("b.json.gz")))) {
+            out.write("""
+                    [{"id":"b1","title":"Imported Chess","category":"Games","type":"CLUB","price":30.0,"nextSessionDate":"2030-01-03T10:00:00Z"}]
+                    """.getBytes(StandardCharsets.UTF_8));
+        }
+        Files.writeString(dir.resolve("notes.txt"), "not a catalog file");
+
+        dataIndexingService.startImport("replaces-index");
+        ImportProgress progress = dataIndexingService.importProgress();
+        for (int i = 0; i < 600 && "RUNNING".equals(progress.getState()); i++) {
+            Thread.sleep(100);
+            progress = dataIndexingService.importProgress();
+        }
+
+        assertThat(progress.getState()).isEqualTo("COMPLETED");
+        assertThat(progress.getFilesTotal()).isEqualTo(2);
+        assertThat(progress.getDocuments()).isEqualTo(3);
+        assertThat(progress.getBytes()).isGreaterThan(0);
+
+        SearchRequest req = new SearchRequest();
+        req.setStartDate(java.time.Instant.parse("2000-01-01T00:00:00Z"));
+        SearchResponse response = courseSearchService.searchCourses(req);
+
+        assertThat(response.getCourses()).extracting(CourseDocument::getId).containsExactlyInAnyOrder("a1", "a2", "b1");
+    }
+
+    @Test
+    void testImportWithRejectedDocumentKeepsLiveIndex() throws Exception {
+        Path dir = Files.createDirectories(dataDir.resolve("imports/rejected-document"));
+        Files.writeString(dir.resolve("a.ndjson"), """
+                {"id":"a1","title":"Imported Algebra","category":"Math","type":"COURSE","price":10.0,"nextSessionDate":"2030-01-01T10:00:00Z"}
+                """);
+        // Elasticsearch rejects ids longer than 512 bytes.
+        Files.writeString(dir.resolve("b.ndjson"), """
+                {"id":"%s","title":"Imported Chess","category":"Games","type":"CLUB","price":30.0,"nextSessionDate":"2030-01-03T10:00:00Z"}
+                """.formatted("x".repeat(600)));
+
+        dataIndexingService.startImport("rejected-document");
+        ImportProgress progress = dataIndexingService.importProgress();
+        for (int i = 0; i < 600 && "RUNNING".equals(progress.getState()); i++) {
+            Thread.sleep(100);
+            progress = dataIndexingService.importProgress();
+        }
+
+        assertThat(progress.getState()).isEqualTo("FAILED");
+        assertThat(progress.getFilesCompleted()).isEqualTo(1);
+        assertThat(progress.getFilesFailed()).isEqualTo(1);
+        assertThat(progress.getFailed()).isEqualTo(1);
+
+        SearchRequest req = new SearchRequest();
+        req.setStartDate(java.time.Instant.parse("2000-01-01T00:00:00Z"));
+        assertThat(courseSearchService.searchCourses(req).getCourses())
+                .extracting(CourseDocument::getId).doesNotContain("a1");
+    }
+
+    @Test
+    void testImportRejectsDirectoriesOutsideRoot() throws Exception {
+        Files.createDirectories(dataDir.resolve("imports"));
+        Files.createDirectories(dataDir.resolve("outside"));
+
+        assertThatThrownBy(() -> dataIndexingService.startImport("../outside"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> dataIndexingService.startImport(dataDir.resolve("outside").toString()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testWarmUpReplaysCorpusAndRecordedSearches() {
+        int corpusOnly = searchWarmer.warmUp(CourseDocument.INDEX_NAME);
+
+        SearchRequest req = new SearchRequest();
+        req.setQ("robotics");
+        req.setSort(SearchRequest.SortOption.PRICE_DESC);
+        courseSearchService.searchCourses(req);
+
+        assertThat(corpusOnly).isGreaterThan(0);
+        assertThat(searchWarmer.warmUp(CourseDocument.INDEX_NAME)).isGreaterThan(corpusOnly);
+    }
+
+    @Test
+    void testWarmUpSkipsRejectedSearches() throws Exception {
+        SearchRequest valid = new SearchRequest();
+        valid.setQ("answered search");
+        courseSearchService.searchCourses(valid);
+
+        SearchRequest invalid = new SearchRequest();
+        invalid.setQ("rejected search");
+        invalid.setFields(List.of("noSuchField"));
+        assertThatThrownBy(() -> courseSearchService.searchCourses(invalid))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        searchWarmer.saveRecording();
+        String recording = Files.readString(dataDir.resolve("warmup-recording.json"));
+        assertThat(recording).contains("answered search").doesNotContain("rejected search");
+    }
+
     @Test
     void testGetSuggestions() {
         List<String> suggestions = courseSearchService.getSuggestions("call");
@@ -0,0 +1,91 @@
+package com.courses.courses;
+
+import com.courses.courses.document.CourseDocument;
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.dto.SearchResponse;
+import com.courses.courses.service.LocalSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalSearchIndexTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    private final LocalSearchIndex index = LocalSearchIndex.build(List.of(
+            course("1", "Introduction to Algebra", "Math", CourseDocument.CourseType.COURSE, 10, 12, "40.00", "2025-07-01T10:00:00Z"),
+            course("2", "Advanced Algebra", "Math", CourseDocument.CourseType.COURSE, 14, 18, "60.00", "2025-06-15T10:00:00Z"),
+            course("3", "Painting Basics", "Art", CourseDocument.CourseType.ONE_TIME, 8, 10, "30.00", "2025-06-20T10:00:00Z"),
+            course("4", "Chess Club", "Games", CourseDocument.CourseType.CLUB, 8, 18, "20.00", "2025-08-01T10:00:00Z"),
+            course("5", "Pottery Workshop", "Art", CourseDocument.CourseType.ONE_TIME, 10, 14, "45.50", "2025-05-01T10:00:00Z")));
+
+    @Test
+    void testDefaultsToUpcomingCoursesByDate() {
+        SearchResponse response = index.search(new SearchRequest(), NOW);
+
+        assertThat(response.getTotal()).isEqualTo(4);
+        assertThat(ids(response)).containsExactly("2", "3", "1", "4");
+    }
+
+    @Test
+    void testFuzzyTextMatch() {
+        SearchRequest request = new SearchRequest();
+        request.setQ("algebar");
+
+        assertThat(ids(index.search(request, NOW))).containsExactly("2", "1");
+    }
+
+    @Test
+    void testFiltersCombine() {
+        SearchRequest request = new SearchRequest();
+        request.setCategory("Math");
+        request.setMinAge(13);
+        request.setMaxPrice(new BigDecimal("60"));
+
+        assertThat(ids(index.search(request, NOW))).containsExactly("2");
+    }
+
+    @Test
+    void testPriceSortAndPaging() {
+        SearchRequest request = new SearchRequest();
+        request.setStartDate(Instant.parse("2025-01-01T00:00:00Z"));
+        request.setSort(SearchRequest.SortOption.PRICE_DESC);
+        request.setPage(1);
+        request.setSize(2);
+
+        SearchResponse response = index.search(request, NOW);
+
+        assertThat(response.getTotal()).isEqualTo(5);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        assertThat(ids(response)).containsExactly("1", "3");
+    }
+
+    @Test
+    void testSuggestMatchesWordPrefixes() {
+        assertThat(index.suggest("alg", 10)).containsExactly("Advanced Algebra", "Introduction to Algebra");
+        assertThat(index.suggest("introduction to al", 10)).containsExactly("Introduction to Algebra");
+    }
+
+    private static List<String> ids(SearchResponse response) {
+        return response.getCourses().stream().map(CourseDocument::getId).toList();
+    }
+
+    private static CourseDocument course(String id, String title, String category, CourseDocument.CourseType type,
+                                         int minAge, int maxAge, String price, String nextSessionDate) {
+        CourseDocument course = new CourseDocument();
+        course.setId(id);
+        course.setTitle(title);
+        course.setDescription("A course about " + title.toLowerCase());
+        course.setCategory(category);
+        course.setType(type);
+        course.setMinAge(minAge);
+        course.setMaxAge(maxAge);
+        course.setPrice(new BigDecimal(price));
+        course.setNextSessionDate(Instant.parse(nextSessionDate));
+        return course;
+    }
+}
@@ -0,0 +1,58 @@
+package com.courses.courses;
+
+import com.courses.courses.service.MappedNdjsonReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedNdjsonReaderTest {
+
+    @Test
+    void testChunksEndOnLineBoundaries(@TempDir Path dir) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            lines.add("{\"id\":\"" + i + "\",\"title\":\"Course number " + i + " with a reasonably long title\"}");
+        }
+        Path file = dir.resolve("courses.ndjson");
+        Files.write(file, lines);
+
+        List<MappedByteBuffer> chunks = MappedNdjsonReader.split(file, 4);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        List<String> read = new ArrayList<>();
+        long total = 0;
+        for (MappedByteBuffer chunk : chunks) {
+            total += chunk.remaining();
+            assertThat(chunk.get(chunk.limit() - 1)).isEqualTo((byte) '\n');
+            try (InputStream in = MappedNdjsonReader.inputStream(chunk)) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                read.addAll(text.lines().toList());
+            }
+        }
+        assertThat(total).isEqualTo(Files.size(file));
+        assertThat(read).isEqualTo(lines);
+    }
+
+    @Test
+    void testLastChunkWithoutTrailingNewline(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("courses.ndjson");
+        Files.writeString(file, "{\"id\":\"1\"}\n{\"id\":\"2\"}");
+
+        List<MappedByteBuffer> chunks = MappedNdjsonReader.split(file, 4);
+
+        assertThat(chunks).hasSize(1);
+        try (InputStream in = MappedNdjsonReader.inputStream(chunks.get(0))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":\"1\"}\n{\"id\":\"2\"}");
+        }
+    }
+}
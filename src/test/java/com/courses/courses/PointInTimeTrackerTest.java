@@ -0,0 +1,44 @@
+package com.courses.courses;
+
+import com.courses.courses.service.PointInTimeTracker;
+import com.courses.courses.service.SearchOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointInTimeTrackerTest {
+
+    @Test
+    void testRejectsNewCursorsAtTheLimitUntilOneCloses() {
+        PointInTimeTracker tracker = new PointInTimeTracker(2, Duration.ofMinutes(1));
+        tracker.reserve();
+        tracker.opened("a");
+        tracker.reserve();
+
+        assertThatThrownBy(tracker::reserve).isInstanceOf(SearchOverloadedException.class);
+
+        tracker.closed("a");
+        tracker.reserve();
+        assertThatThrownBy(tracker::reserve).isInstanceOf(SearchOverloadedException.class);
+
+        tracker.cancel();
+        tracker.reserve();
+    }
+
+    @Test
+    void testAbandonedCursorFreesItsSlotAfterKeepAlive() throws InterruptedException {
+        PointInTimeTracker tracker = new PointInTimeTracker(1, Duration.ofMillis(100));
+        tracker.reserve();
+        tracker.opened("a");
+        assertThatThrownBy(tracker::reserve).isInstanceOf(SearchOverloadedException.class);
+
+        Thread.sleep(150);
+
+        tracker.reserve();
+        tracker.opened("b");
+        assertThat(tracker.getOpen()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.courses.courses;
+
+import com.courses.courses.service.SearchCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCircuitBreakerTest {
+
+    @Test
+    void testBadRequestProbeKeepsBreakerHalfOpen() {
+        SearchCircuitBreaker breaker = breaker(Duration.ZERO);
+        assertThat(breaker.call(SearchCircuitBreakerTest::fail, () -> "local")).isEqualTo("local");
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> breaker.call(() -> {
+            throw new IllegalArgumentException("Unknown field: nope");
+        }, () -> "local")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.HALF_OPEN);
+
+        assertThat(breaker.call(() -> "remote", () -> "local")).isEqualTo("remote");
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testFailedProbeReopensForTheFullDuration() throws InterruptedException {
+        SearchCircuitBreaker breaker = breaker(Duration.ofMillis(200));
+        breaker.call(SearchCircuitBreakerTest::fail, () -> "local");
+        Thread.sleep(250);
+
+        assertThat(breaker.call(SearchCircuitBreakerTest::fail, () -> "local")).isEqualTo("local");
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.OPEN);
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThat(breaker.call(() -> "remote" + calls.incrementAndGet(), () -> "local")).isEqualTo("local");
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void testFailedAsyncCallFallsBackAndOpensBreaker() {
+        SearchCircuitBreaker breaker = breaker(Duration.ofSeconds(10));
+
+        CompletableFuture<String> result = breaker.callAsync(
+                () -> CompletableFuture.failedFuture(new IllegalStateException("connection refused")), () -> "local");
+
+        assertThat(result.join()).isEqualTo("local");
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void testBadRequestAsyncProbeKeepsBreakerHalfOpen() {
+        SearchCircuitBreaker breaker = breaker(Duration.ZERO);
+        breaker.call(SearchCircuitBreakerTest::fail, () -> "local");
+
+        CompletableFuture<String> result = breaker.callAsync(
+                () -> CompletableFuture.failedFuture(new IllegalArgumentException("Unknown field: nope")), () -> "local");
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.callAsync(() -> CompletableFuture.completedFuture("remote"), () -> "local").join())
+                .isEqualTo("remote");
+        assertThat(breaker.getState()).isEqualTo(SearchCircuitBreaker.State.CLOSED);
+    }
+
+    private static SearchCircuitBreaker breaker(Duration openDuration) {
+        return new SearchCircuitBreaker(true, 1, openDuration, Duration.ofSeconds(10), new SimpleMeterRegistry());
+    }
+
+    private static String fail() {
+        throw new IllegalStateException("connection refused");
+    }
+}
@@ -0,0 +1,126 @@
+package com.courses.courses;
+
+import com.courses.courses.service.SearchConcurrencyLimiter;
+import com.courses.courses.service.SearchOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchConcurrencyLimiterTest {
+
+    @Test
+    void testShedsOnArrivalWhenQueueIsFull() throws Exception {
+        SearchConcurrencyLimiter limiter = limiter(1, 1, 1, 0, Duration.ofSeconds(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> limiter.call(() -> block(started, release)));
+        started.await();
+
+        assertThatThrownBy(() -> limiter.call(() -> "second"))
+                .isInstanceOfSatisfying(SearchOverloadedException.class, e -> {
+                    assertThat(e.isTimedOut()).isFalse();
+                    assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1));
+                });
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.call(() -> "after")).isEqualTo("after");
+    }
+
+    @Test
+    void testQueuedCallGivesUpAfterMaxWait() throws Exception {
+        SearchConcurrencyLimiter limiter = limiter(1, 1, 1, 10, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> limiter.call(() -> block(started, release)));
+        started.await();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.call(() -> "second"))
+                .isInstanceOfSatisfying(SearchOverloadedException.class, e -> assertThat(e.isTimedOut()).isTrue());
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() throws Exception {
+        SearchConcurrencyLimiter limiter = limiter(20, 4, 100, 1000, Duration.ofSeconds(10));
+
+        runConcurrently(limiter, 16, 20, 2);
+        int steadyLimit = limiter.getLimit();
+        runConcurrently(limiter, 16, 5, 40);
+
+        assertThat(limiter.getLimit()).isLessThan(steadyLimit);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testAsyncCallHoldsItsSlotUntilTheFutureCompletes() {
+        SearchConcurrencyLimiter limiter = limiter(1, 1, 1, 0, Duration.ofSeconds(1));
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = limiter.callAsync(() -> pending);
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.callAsync(() -> CompletableFuture.completedFuture("second")))
+                .isInstanceOf(SearchOverloadedException.class);
+
+        pending.complete("first");
+        assertThat(first.join()).isEqualTo("first");
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static SearchConcurrencyLimiter limiter(int initial, int min, int max, int maxQueue, Duration maxWait) {
+        return new SearchConcurrencyLimiter(true, initial, min, max, maxQueue, maxWait, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+    }
+
+    private static void runConcurrently(SearchConcurrencyLimiter limiter, int threads, int callsPerThread,
+                                        long latencyMillis) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < callsPerThread; i++) {
+                        limiter.call(() -> sleep(latencyMillis));
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String block(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "first";
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,38 @@
+package com.courses.courses;
+
+import com.courses.courses.dto.SearchRequest;
+import com.courses.courses.service.SearchCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    void testRoundTripKeepsSortValueTypes() {
+        SearchCursor cursor = new SearchCursor("pit-id==", SearchRequest.SortOption.PRICE_DESC,
+                Arrays.asList(49.5, "17", 1753023600000L, 3));
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertThat(decoded.pointInTimeId()).isEqualTo("pit-id==");
+        assertThat(decoded.sort()).isEqualTo(SearchRequest.SortOption.PRICE_DESC);
+        assertThat(decoded.searchAfter()).containsExactly(49.5, "17", 1753023600000L, 3L);
+    }
+
+    @Test
+    void testTokenIsUrlSafe() {
+        SearchCursor cursor = new SearchCursor("a+b/c==", SearchRequest.SortOption.UPCOMING, Arrays.asList(1L));
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void testRejectsGarbage() {
+        assertThatThrownBy(() -> SearchCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
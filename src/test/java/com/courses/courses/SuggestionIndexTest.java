@@ -0,0 +1,54 @@
+package com.courses.courses;
+
+import com.courses.courses.service.SuggestionIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = SuggestionIndex.build(Map.of(
+            "Introduction to Algebra", 1,
+            "Advanced Algebra", 3,
+            "Calligraphy Workshop", 1,
+            "Pottery Workshop", 2,
+            "Chess Club", 1), 10);
+
+    @Test
+    void testPrefixOfAnyWord() {
+        List<String> suggestions = index.suggest("alg", 10, false);
+
+        assertThat(suggestions).containsExactly("Advanced Algebra", "Introduction to Algebra");
+    }
+
+    @Test
+    void testCaseAndPunctuationInsensitive() {
+        assertThat(index.suggest("  CALL", 10, false)).containsExactly("Calligraphy Workshop");
+    }
+
+    @Test
+    void testHeavierTitlesFirst() {
+        assertThat(index.suggest("work", 10, false)).containsExactly("Pottery Workshop", "Calligraphy Workshop");
+    }
+
+    @Test
+    void testLimit() {
+        assertThat(index.suggest("a", 1, false)).containsExactly("Advanced Algebra");
+    }
+
+    @Test
+    void testFuzzyOneEdit() {
+        assertThat(index.suggest("chss", 10, false)).isEmpty();
+        assertThat(index.suggest("chss", 10, true)).containsExactly("Chess Club");
+        assertThat(index.suggest("alegbra", 10, true)).isEmpty();
+    }
+
+    @Test
+    void testNoMatch() {
+        assertThat(index.suggest("zzz", 10, true)).isEmpty();
+        assertThat(index.suggest("", 10, true)).isEmpty();
+    }
+}